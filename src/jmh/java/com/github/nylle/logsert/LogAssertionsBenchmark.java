@@ -0,0 +1,85 @@
+package com.github.nylle.logsert;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter chains and failure rendering of {@link LogAssertions} over a recording of a fixed size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogAssertionsBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("benchmark.assertions");
+
+    @Param({"10000", "1000000"})
+    public int events;
+
+    private LogRecorder recorder;
+
+    @Setup(Level.Trial)
+    public void record() {
+        recorder = new LogRecorder("benchmark.assertions").suppressingOutput();
+        recorder.beforeEach(null);
+        for (int i = 0; i < events; i++) {
+            MDC.put("requestId", String.valueOf(i % 100));
+            if (i % 10 == 0) {
+                LOGGER.warn("slow request {}", i);
+            } else {
+                LOGGER.info("handled request {}", i);
+            }
+        }
+        MDC.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void detach() {
+        recorder.afterEach(null);
+    }
+
+    @Benchmark
+    public LogAssertions filterChain() {
+        return LogAssertions.assertThat(recorder)
+                .withLevel(ch.qos.logback.classic.Level.WARN)
+                .withMdcEntry("requestId", "50")
+                .withMessageContaining("slow request")
+                .containsLogs(events / 100);
+    }
+
+    @Benchmark
+    public LogAssertions containsAll() {
+        return LogAssertions.assertThat(recorder).containsAll(
+                LogExpectation.logs().withLevel(ch.qos.logback.classic.Level.WARN).times(events / 10),
+                LogExpectation.logs().withMessage("handled request 1").times(1));
+    }
+
+    @Benchmark
+    public String failureRendering() {
+        try {
+            LogAssertions.assertThat(recorder).withMessage("missing").containsLogs();
+            throw new IllegalStateException("assertion did not fail");
+        } catch (AssertionError error) {
+            return error.getMessage();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.nylle.logsert;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MeterAssertions} over registries with many meters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeterAssertionsBenchmark {
+
+    @Param({"10000", "100000"})
+    public int meters;
+
+    private MeterRegistry registry;
+
+    @Setup(Level.Trial)
+    public void register() {
+        registry = new SimpleMeterRegistry();
+        for (int i = 0; i < meters; i++) {
+            registry.counter("requests", Tags.of("endpoint", "endpoint-" + i % 100, "status", String.valueOf(i))).increment(i);
+        }
+    }
+
+    @Benchmark
+    public MeterAssertions containsCount() {
+        return MeterAssertions.assertThat(registry)
+                .withName("requests")
+                .withTag("endpoint", "endpoint-42")
+                .withTag("status", "42")
+                .containsCount(42);
+    }
+
+    @Benchmark
+    public MeterAssertions containsNoMeasurements() {
+        return MeterAssertions.assertThat(registry)
+                .withName("missing")
+                .containsNoMeasurements();
+    }
+}
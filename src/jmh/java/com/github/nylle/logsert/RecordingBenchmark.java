@@ -0,0 +1,69 @@
+package com.github.nylle.logsert;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to record a batch of events into a fresh recorder, from one and from several threads. Each iteration starts
+ * with an empty store so that unbounded stores are measured without running out of heap. Output to the console
+ * appender is suppressed so that only the store is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = 100_000)
+@Measurement(iterations = 20, batchSize = 100_000)
+@Fork(1)
+public class RecordingBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("benchmark.recording");
+
+    @Param({"default", "compact", "ring"})
+    public String store;
+
+    private LogRecorder recorder;
+
+    @Setup(Level.Iteration)
+    public void attach() {
+        recorder = new LogRecorder("benchmark.recording").suppressingOutput();
+        if (store.equals("compact")) {
+            recorder.storingCompactly();
+        } else if (store.equals("ring")) {
+            recorder.withCapacity(10_000);
+        }
+        recorder.beforeEach(null);
+    }
+
+    @TearDown(Level.Iteration)
+    public void detach() {
+        recorder.afterEach(null);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void appendSingleThreaded() {
+        LOGGER.info("message {}", 42);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void appendMultiThreaded() {
+        LOGGER.info("message {}", 42);
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.nylle.logsert;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes how many events each log assertion scanned, how long matching took and how long failures took to render.
+ */
+class AssertionMetrics {
+
+    private final MeterRegistry registry;
+
+    AssertionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void evaluated(String assertion, long scanned, long nanos) {
+        DistributionSummary.builder("logsert.assertions.scanned")
+                .description("events scanned by an assertion")
+                .tag("assertion", assertion)
+                .register(registry)
+                .record(scanned);
+        Timer.builder("logsert.assertions.predicate")
+                .description("time spent matching events")
+                .tag("assertion", assertion)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void rendered(String assertion, long nanos) {
+        Timer.builder("logsert.assertions.render")
+                .description("time spent rendering a failure message")
+                .tag("assertion", assertion)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
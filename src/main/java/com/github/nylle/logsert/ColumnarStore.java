@@ -0,0 +1,393 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.LoggerContextVO;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Stores only what assertions read, one column per field: the level as a byte, the timestamp and sequence number as
+ * longs, interned message templates, logger and thread names as ints, MDC maps as shared flyweights and the logger
+ * context view, which its logger context shares between all events. Caller data is dropped and
+ * messages are formatted when an event is first read and kept in a column. Rows are claimed and published like in
+ * {@link EventLog}.
+ */
+class ColumnarStore implements EventStore {
+
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final Level[] LEVELS = {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR};
+
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+    private final Strings strings = new Strings();
+    private final Map<Map<String, String>, Map<String, String>> mdcs = new ConcurrentHashMap<>();
+    private volatile Columns[] segments = new Columns[16];
+
+    @Override
+    public void append(ILoggingEvent event) {
+        var position = claimed.getAndIncrement();
+        var columns = segment(position >>> SEGMENT_SHIFT);
+        var row = position & SEGMENT_MASK;
+        columns.levels[row] = encode(event.getLevel());
+        columns.timestamps[row] = event.getTimeStamp();
+        columns.sequenceNumbers[row] = event.getSequenceNumber();
+        columns.templates[row] = strings.intern(event.getMessage());
+        columns.loggers[row] = strings.intern(event.getLoggerName());
+        columns.threads[row] = strings.intern(event.getThreadName());
+        columns.arguments[row] = event.getArgumentArray();
+        columns.mdcs[row] = flyweight(event.getMDCPropertyMap());
+        columns.throwables[row] = event.getThrowableProxy();
+        columns.contexts[row] = event.getLoggerContextVO();
+        columns.written.set(row, 1);
+        publish();
+    }
+
+    public int size() {
+        return published.get();
+    }
+
+    @Override
+    public long appendedCount() {
+        return size();
+    }
+
+    @Override
+    public long retained() {
+        return size();
+    }
+
+    public ILoggingEvent get(int position) {
+        return new Row(this, segments[position >>> SEGMENT_SHIFT], position & SEGMENT_MASK);
+    }
+
+    @Override
+    public List<ILoggingEvent> snapshot() {
+        return new Snapshot(this, 0, size());
+    }
+
+    private void publish() {
+        var current = published.get();
+        while (current < claimed.get() && isWritten(current)) {
+            published.compareAndSet(current, current + 1);
+            current = published.get();
+        }
+    }
+
+    private boolean isWritten(int position) {
+        var directory = segments;
+        var index = position >>> SEGMENT_SHIFT;
+        return index < directory.length && directory[index] != null && directory[index].written.get(position & SEGMENT_MASK) != 0;
+    }
+
+    private Columns segment(int index) {
+        var directory = segments;
+        if (index < directory.length && directory[index] != null) {
+            return directory[index];
+        }
+        return addSegment(index);
+    }
+
+    private synchronized Columns addSegment(int index) {
+        var directory = segments;
+        if (index >= directory.length) {
+            directory = Arrays.copyOf(directory, Math.max(directory.length * 2, index + 1));
+        }
+        if (directory[index] == null) {
+            directory[index] = new Columns();
+        }
+        segments = directory;
+        return directory[index];
+    }
+
+    private Map<String, String> flyweight(Map<String, String> mdc) {
+        if (mdc == null || mdc.isEmpty()) {
+            return Map.of();
+        }
+        var shared = mdcs.get(mdc);
+        return shared != null ? shared : mdcs.computeIfAbsent(Collections.unmodifiableMap(new HashMap<>(mdc)), x -> x);
+    }
+
+    static byte encode(Level level) {
+        if (level == null) {
+            return -1;
+        }
+        for (byte i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i] == level) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static Level decode(byte level) {
+        return level < 0 ? null : LEVELS[level];
+    }
+
+    private int[] scan(ExpectedLoggingEvent expected, int from, int to) {
+        var level = expected.getLevel() == null ? 0 : encode(expected.getLevel());
+        var logger = expected.getLoggerName() == null ? 0 : strings.find(expected.getLoggerName());
+        if (level < 0 || logger < 0) {
+            return new int[0];
+        }
+        var matches = new int[Math.min(to - from, 64)];
+        var length = 0;
+        for (var position = from; position < to; position++) {
+            var columns = segments[position >>> SEGMENT_SHIFT];
+            var row = position & SEGMENT_MASK;
+            if (expected.getLevel() != null && columns.levels[row] != level) {
+                continue;
+            }
+            if (expected.getLoggerName() != null && columns.loggers[row] != logger) {
+                continue;
+            }
+            if (length == matches.length) {
+                matches = Arrays.copyOf(matches, length * 2);
+            }
+            matches[length++] = position;
+        }
+        return Arrays.copyOf(matches, length);
+    }
+
+    private static class Columns {
+        private final byte[] levels = new byte[SEGMENT_SIZE];
+        private final long[] timestamps = new long[SEGMENT_SIZE];
+        private final long[] sequenceNumbers = new long[SEGMENT_SIZE];
+        private final int[] templates = new int[SEGMENT_SIZE];
+        private final int[] loggers = new int[SEGMENT_SIZE];
+        private final int[] threads = new int[SEGMENT_SIZE];
+        private final Object[][] arguments = new Object[SEGMENT_SIZE][];
+        private final String[] formatted = new String[SEGMENT_SIZE];
+        @SuppressWarnings("unchecked")
+        private final Map<String, String>[] mdcs = new Map[SEGMENT_SIZE];
+        private final IThrowableProxy[] throwables = new IThrowableProxy[SEGMENT_SIZE];
+        private final LoggerContextVO[] contexts = new LoggerContextVO[SEGMENT_SIZE];
+        private final AtomicIntegerArray written = new AtomicIntegerArray(SEGMENT_SIZE);
+    }
+
+    /**
+     * Interns strings as ints. Ids are handed out under a lock and the fast path only reads the map.
+     */
+    private static class Strings {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private volatile String[] values = new String[64];
+        private int size = 1;
+
+        int intern(String value) {
+            if (value == null) {
+                return 0;
+            }
+            var id = ids.get(value);
+            return id != null ? id : add(value);
+        }
+
+        int find(String value) {
+            var id = ids.get(value);
+            return id != null ? id : -1;
+        }
+
+        String get(int id) {
+            return values[id];
+        }
+
+        private synchronized int add(String value) {
+            var id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            var current = values;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = value;
+            values = current;
+            ids.put(value, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Reads one row as a logging event. The message is formatted on first access and shared by all views of the row.
+     */
+    private static class Row implements ILoggingEvent {
+        private final ColumnarStore store;
+        private final Columns columns;
+        private final int row;
+
+        private Row(ColumnarStore store, Columns columns, int row) {
+            this.store = store;
+            this.columns = columns;
+            this.row = row;
+        }
+
+        @Override
+        public String getThreadName() {
+            return store.strings.get(columns.threads[row]);
+        }
+
+        @Override
+        public Level getLevel() {
+            return decode(columns.levels[row]);
+        }
+
+        @Override
+        public String getMessage() {
+            return store.strings.get(columns.templates[row]);
+        }
+
+        @Override
+        public Object[] getArgumentArray() {
+            return columns.arguments[row];
+        }
+
+        @Override
+        public String getFormattedMessage() {
+            var formattedMessage = columns.formatted[row];
+            if (formattedMessage == null) {
+                var arguments = getArgumentArray();
+                formattedMessage = arguments == null ? getMessage() : MessageFormatter.arrayFormat(getMessage(), arguments).getMessage();
+                columns.formatted[row] = formattedMessage;
+            }
+            return formattedMessage;
+        }
+
+        @Override
+        public String getLoggerName() {
+            return store.strings.get(columns.loggers[row]);
+        }
+
+        @Override
+        public LoggerContextVO getLoggerContextVO() {
+            return columns.contexts[row];
+        }
+
+        @Override
+        public IThrowableProxy getThrowableProxy() {
+            return columns.throwables[row];
+        }
+
+        @Override
+        public StackTraceElement[] getCallerData() {
+            return new StackTraceElement[0];
+        }
+
+        @Override
+        public boolean hasCallerData() {
+            return false;
+        }
+
+        @Override
+        public List<Marker> getMarkerList() {
+            return null;
+        }
+
+        @Override
+        public Map<String, String> getMDCPropertyMap() {
+            return columns.mdcs[row];
+        }
+
+        @Override
+        public Map<String, String> getMdc() {
+            return getMDCPropertyMap();
+        }
+
+        @Override
+        public long getTimeStamp() {
+            return columns.timestamps[row];
+        }
+
+        @Override
+        public int getNanoseconds() {
+            return (int) Math.floorMod(getTimeStamp(), 1000L) * 1_000_000;
+        }
+
+        @Override
+        public long getSequenceNumber() {
+            return columns.sequenceNumbers[row];
+        }
+
+        @Override
+        public List<KeyValuePair> getKeyValuePairs() {
+            return null;
+        }
+
+        @Override
+        public void prepareForDeferredProcessing() {
+        }
+
+        @Override
+        public String toString() {
+            return "[" + getLevel() + "] " + getFormattedMessage();
+        }
+    }
+
+    private static class Snapshot extends AbstractList<ILoggingEvent> implements RandomAccess, IndexedEvents {
+
+        private final ColumnarStore store;
+        private final int from;
+        private final int to;
+
+        private Snapshot(ColumnarStore store, int from, int to) {
+            this.store = store;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public ILoggingEvent get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return store.get(from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public List<ILoggingEvent> lookup(ExpectedLoggingEvent expected) {
+            if (expected.getLevel() == null && expected.getLoggerName() == null) {
+                return this;
+            }
+            return new Scanned(store, store.scan(expected, from, to));
+        }
+    }
+
+    private static class Scanned extends AbstractList<ILoggingEvent> implements RandomAccess {
+
+        private final ColumnarStore store;
+        private final int[] positions;
+
+        private Scanned(ColumnarStore store, int[] positions) {
+            this.store = store;
+            this.positions = positions;
+        }
+
+        @Override
+        public ILoggingEvent get(int index) {
+            return store.get(positions[index]);
+        }
+
+        @Override
+        public int size() {
+            return positions.length;
+        }
+    }
+}
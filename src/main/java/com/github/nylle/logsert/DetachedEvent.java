@@ -0,0 +1,177 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.LoggerContextVO;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A logging event read back from outside the logger context, carrying only the fields assertions look at. Its
+ * throwable keeps class name and message but not the original instance.
+ */
+class DetachedEvent implements ILoggingEvent {
+
+    private final Level level;
+    private final String loggerName;
+    private final String threadName;
+    private final String message;
+    private final long timeStamp;
+    private final Map<String, String> mdc;
+    private final IThrowableProxy throwableProxy;
+
+    DetachedEvent(Level level, String loggerName, String threadName, String message, long timeStamp, Map<String, String> mdc, IThrowableProxy throwableProxy) {
+        this.level = level;
+        this.loggerName = loggerName;
+        this.threadName = threadName;
+        this.message = message;
+        this.timeStamp = timeStamp;
+        this.mdc = mdc;
+        this.throwableProxy = throwableProxy;
+    }
+
+    @Override
+    public String getThreadName() {
+        return threadName;
+    }
+
+    @Override
+    public Level getLevel() {
+        return level;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public Object[] getArgumentArray() {
+        return null;
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        return message;
+    }
+
+    @Override
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    @Override
+    public LoggerContextVO getLoggerContextVO() {
+        return null;
+    }
+
+    @Override
+    public IThrowableProxy getThrowableProxy() {
+        return throwableProxy;
+    }
+
+    @Override
+    public StackTraceElement[] getCallerData() {
+        return new StackTraceElement[0];
+    }
+
+    @Override
+    public boolean hasCallerData() {
+        return false;
+    }
+
+    @Override
+    public List<Marker> getMarkerList() {
+        return null;
+    }
+
+    @Override
+    public Map<String, String> getMDCPropertyMap() {
+        return mdc;
+    }
+
+    @Override
+    public Map<String, String> getMdc() {
+        return mdc;
+    }
+
+    @Override
+    public long getTimeStamp() {
+        return timeStamp;
+    }
+
+    @Override
+    public int getNanoseconds() {
+        return (int) Math.floorMod(timeStamp, 1000L) * 1_000_000;
+    }
+
+    @Override
+    public long getSequenceNumber() {
+        return 0;
+    }
+
+    @Override
+    public List<KeyValuePair> getKeyValuePairs() {
+        return null;
+    }
+
+    @Override
+    public void prepareForDeferredProcessing() {
+    }
+
+    @Override
+    public String toString() {
+        return "[" + level + "] " + message;
+    }
+
+    static class ThrowableSummary implements IThrowableProxy {
+
+        private final String className;
+        private final String message;
+
+        ThrowableSummary(String className, String message) {
+            this.className = className;
+            this.message = message;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String getClassName() {
+            return className;
+        }
+
+        @Override
+        public StackTraceElementProxy[] getStackTraceElementProxyArray() {
+            return new StackTraceElementProxy[0];
+        }
+
+        @Override
+        public int getCommonFrames() {
+            return 0;
+        }
+
+        @Override
+        public IThrowableProxy getCause() {
+            return null;
+        }
+
+        @Override
+        public IThrowableProxy[] getSuppressed() {
+            return new IThrowableProxy[0];
+        }
+
+        @Override
+        public boolean isCyclic() {
+            return false;
+        }
+    }
+}
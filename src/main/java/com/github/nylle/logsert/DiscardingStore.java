@@ -0,0 +1,31 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+class DiscardingStore implements EventStore {
+
+    private final AtomicLong appended = new AtomicLong();
+
+    @Override
+    public void append(ILoggingEvent event) {
+        appended.incrementAndGet();
+    }
+
+    @Override
+    public List<ILoggingEvent> snapshot() {
+        return List.of();
+    }
+
+    @Override
+    public long appendedCount() {
+        return appended.get();
+    }
+
+    @Override
+    public long retained() {
+        return 0;
+    }
+}
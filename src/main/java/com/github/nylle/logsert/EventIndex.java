@@ -0,0 +1,132 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Posting lists of log positions by level, logger name, MDC entry and throwable class. The index catches up with the
+ * log on lookup, so appending stays lock-free and every event is still indexed only once.
+ */
+class EventIndex {
+
+    private static final Postings NONE = new Postings(new int[0], 0, 0);
+
+    private final EventLog log;
+    private final Map<Level, IntList> byLevel = new HashMap<>();
+    private final Map<String, IntList> byLogger = new HashMap<>();
+    private final Map<String, Map<String, IntList>> byMdc = new HashMap<>();
+    private final Map<String, IntList> byThrowableClass = new HashMap<>();
+    private int indexed;
+
+    EventIndex(EventLog log) {
+        this.log = log;
+    }
+
+    public synchronized List<ILoggingEvent> lookup(ExpectedLoggingEvent expected, int from, int size) {
+        catchUp(size);
+
+        Postings smallest = null;
+        if (expected.getLevel() != null) {
+            smallest = smallest(smallest, byLevel.get(expected.getLevel()), from, size);
+        }
+        if (expected.getLoggerName() != null) {
+            smallest = smallest(smallest, byLogger.get(expected.getLoggerName()), from, size);
+        }
+        if (expected.getMdc() != null) {
+            for (var entry : expected.getMdc().entrySet()) {
+                smallest = smallest(smallest, byMdc.getOrDefault(entry.getKey(), Map.of()).get(entry.getValue()), from, size);
+            }
+        }
+        if (expected.getThrowableClass() != null) {
+            smallest = smallest(smallest, byThrowableClass.get(expected.getThrowableClass()), from, size);
+        }
+
+        return smallest == null ? null : new Events(log, smallest);
+    }
+
+    private void catchUp(int size) {
+        for (; indexed < size; indexed++) {
+            var event = log.get(indexed);
+            byLevel.computeIfAbsent(event.getLevel(), x -> new IntList()).add(indexed);
+            byLogger.computeIfAbsent(event.getLoggerName(), x -> new IntList()).add(indexed);
+            for (var entry : event.getMDCPropertyMap().entrySet()) {
+                byMdc.computeIfAbsent(entry.getKey(), x -> new HashMap<>()).computeIfAbsent(entry.getValue(), x -> new IntList()).add(indexed);
+            }
+            if (event.getThrowableProxy() != null) {
+                byThrowableClass.computeIfAbsent(event.getThrowableProxy().getClassName(), x -> new IntList()).add(indexed);
+            }
+        }
+    }
+
+    private static Postings smallest(Postings current, IntList candidate, int from, int size) {
+        var postings = candidate == null ? NONE : candidate.range(from, size);
+        return current == null || postings.length() < current.length() ? postings : current;
+    }
+
+    private static class IntList {
+        private int[] values = new int[8];
+        private int length;
+
+        void add(int value) {
+            if (length == values.length) {
+                values = Arrays.copyOf(values, length * 2);
+            }
+            values[length++] = value;
+        }
+
+        Postings range(int from, int size) {
+            return new Postings(values, insertionPoint(from), insertionPoint(size));
+        }
+
+        private int insertionPoint(int position) {
+            var index = Arrays.binarySearch(values, 0, length, position);
+            return index < 0 ? -index - 1 : index;
+        }
+    }
+
+    private static class Postings {
+        private final int[] positions;
+        private final int start;
+        private final int end;
+
+        Postings(int[] positions, int start, int end) {
+            this.positions = positions;
+            this.start = start;
+            this.end = end;
+        }
+
+        int length() {
+            return end - start;
+        }
+    }
+
+    private static class Events extends AbstractList<ILoggingEvent> implements RandomAccess {
+        private final EventLog log;
+        private final Postings postings;
+
+        Events(EventLog log, Postings postings) {
+            this.log = log;
+            this.postings = postings;
+        }
+
+        @Override
+        public ILoggingEvent get(int index) {
+            if (index < 0 || index >= postings.length()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + postings.length());
+            }
+            return log.get(postings.positions[postings.start + index]);
+        }
+
+        @Override
+        public int size() {
+            return postings.length();
+        }
+    }
+}
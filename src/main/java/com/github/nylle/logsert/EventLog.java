@@ -0,0 +1,128 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Append-only log stored in fixed-size segments. Writers advance the published size across every contiguous filled
+ * position, so a snapshot is a stable prefix that can be read without copying while writers keep appending.
+ */
+class EventLog implements EventStore {
+
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+    private volatile AtomicReferenceArray<ILoggingEvent>[] segments = newDirectory(16);
+    private final EventIndex index = new EventIndex(this);
+
+    @Override
+    public void append(ILoggingEvent event) {
+        var position = claimed.getAndIncrement();
+        segment(position >>> SEGMENT_SHIFT).set(position & SEGMENT_MASK, event);
+        publish();
+    }
+
+    public int size() {
+        return published.get();
+    }
+
+    @Override
+    public long appendedCount() {
+        return size();
+    }
+
+    @Override
+    public long retained() {
+        return size();
+    }
+
+    public ILoggingEvent get(int position) {
+        return segments[position >>> SEGMENT_SHIFT].get(position & SEGMENT_MASK);
+    }
+
+    @Override
+    public List<ILoggingEvent> snapshot() {
+        return new Snapshot(this, 0, size());
+    }
+
+    private void publish() {
+        var current = published.get();
+        while (current < claimed.get() && isFilled(current)) {
+            published.compareAndSet(current, current + 1);
+            current = published.get();
+        }
+    }
+
+    private boolean isFilled(int position) {
+        var directory = segments;
+        var index = position >>> SEGMENT_SHIFT;
+        return index < directory.length && directory[index] != null && directory[index].get(position & SEGMENT_MASK) != null;
+    }
+
+    private AtomicReferenceArray<ILoggingEvent> segment(int index) {
+        var directory = segments;
+        if (index < directory.length && directory[index] != null) {
+            return directory[index];
+        }
+        return addSegment(index);
+    }
+
+    private synchronized AtomicReferenceArray<ILoggingEvent> addSegment(int index) {
+        var directory = segments;
+        if (index >= directory.length) {
+            var grown = newDirectory(Math.max(directory.length * 2, index + 1));
+            System.arraycopy(directory, 0, grown, 0, directory.length);
+            directory = grown;
+        }
+        if (directory[index] == null) {
+            directory[index] = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        }
+        segments = directory;
+        return directory[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AtomicReferenceArray<ILoggingEvent>[] newDirectory(int length) {
+        return new AtomicReferenceArray[length];
+    }
+
+    private static class Snapshot extends AbstractList<ILoggingEvent> implements RandomAccess, IndexedEvents {
+
+        private final EventLog log;
+        private final int from;
+        private final int to;
+
+        private Snapshot(EventLog log, int from, int to) {
+            this.log = log;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public ILoggingEvent get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return log.get(from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public List<ILoggingEvent> lookup(ExpectedLoggingEvent expected) {
+            var candidates = log.index.lookup(expected, from, to);
+            return candidates == null ? this : candidates;
+        }
+    }
+}
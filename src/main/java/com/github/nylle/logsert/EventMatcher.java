@@ -0,0 +1,118 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * All criteria of an {@link ExpectedLoggingEvent} fused into a single predicate that checks the cheapest criteria
+ * first and does not allocate per event. Formatting the message and reflecting the throwable come last.
+ */
+class EventMatcher implements Predicate<ILoggingEvent> {
+
+    private final boolean unsatisfiable;
+    private final Level level;
+    private final String loggerName;
+    private final int mdcSize;
+    private final String[] mdcKeys;
+    private final String[] mdcValues;
+    private final String throwableClass;
+    private final String[] throwableMessages;
+    private final String[] messages;
+    private final String[] messageFragments;
+    private final Throwable[] throwables;
+
+    EventMatcher(boolean unsatisfiable, Level level, String loggerName, int mdcSize, String[] mdcKeys, String[] mdcValues,
+                 String throwableClass, String[] throwableMessages, String[] messages, String[] messageFragments, Throwable[] throwables) {
+        this.unsatisfiable = unsatisfiable;
+        this.level = level;
+        this.loggerName = loggerName;
+        this.mdcSize = mdcSize;
+        this.mdcKeys = mdcKeys;
+        this.mdcValues = mdcValues;
+        this.throwableClass = throwableClass;
+        this.throwableMessages = throwableMessages;
+        this.messages = messages;
+        this.messageFragments = messageFragments;
+        this.throwables = throwables;
+    }
+
+    @Override
+    public boolean test(ILoggingEvent event) {
+        if (unsatisfiable) {
+            return false;
+        }
+        if (level != null && event.getLevel() != level) {
+            return false;
+        }
+        if (loggerName != null && !loggerName.equals(event.getLoggerName())) {
+            return false;
+        }
+        if (mdcKeys.length > 0 || mdcSize >= 0) {
+            var mdc = event.getMDCPropertyMap();
+            if (mdcSize >= 0 && mdc.size() != mdcSize) {
+                return false;
+            }
+            for (int i = 0; i < mdcKeys.length; i++) {
+                if (!mdcValues[i].equals(mdc.get(mdcKeys[i]))) {
+                    return false;
+                }
+            }
+        }
+        if (throwableClass != null || throwableMessages.length > 0 || throwables.length > 0) {
+            var throwableProxy = event.getThrowableProxy();
+            if (throwableProxy == null) {
+                return false;
+            }
+            if (throwableClass != null && !throwableClass.equals(throwableProxy.getClassName())) {
+                return false;
+            }
+            for (var throwableMessage : throwableMessages) {
+                if (!Objects.equals(throwableMessage, throwableProxy.getMessage())) {
+                    return false;
+                }
+            }
+        }
+        if (messages.length > 0 || messageFragments.length > 0) {
+            var formattedMessage = event.getFormattedMessage();
+            for (var message : messages) {
+                if (!message.equals(formattedMessage)) {
+                    return false;
+                }
+            }
+            for (var fragment : messageFragments) {
+                if (formattedMessage == null || !formattedMessage.contains(fragment)) {
+                    return false;
+                }
+            }
+        }
+        if (throwables.length > 0) {
+            var throwable = reflectThrowable(event.getThrowableProxy());
+            for (var expectedThrowable : throwables) {
+                if (!expectedThrowable.equals(throwable)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings({"java:S3011", "java:S112"})
+    private static Throwable reflectThrowable(IThrowableProxy throwableProxy) {
+        if (!(throwableProxy instanceof ThrowableProxy)) {
+            return null;
+        }
+        try {
+            var throwable = Arrays.stream(throwableProxy.getClass().getDeclaredFields()).filter(x -> x.getName().equals("throwable")).findFirst().orElseThrow();
+            throwable.setAccessible(true);
+            return (Throwable) throwable.get(throwableProxy);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.List;
+import java.util.Map;
+
+interface EventStore {
+
+    void append(ILoggingEvent event);
+
+    List<ILoggingEvent> snapshot();
+
+    long appendedCount();
+
+    long retained();
+
+    default long evictedCount() {
+        return 0;
+    }
+
+    default Map<Level, Long> evictedCountByLevel() {
+        return Map.of();
+    }
+
+    default Map<String, Long> evictedCountByLogger() {
+        return Map.of();
+    }
+
+    default void close() {
+    }
+}
@@ -3,50 +3,160 @@ package com.github.nylle.logsert;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * The criteria of {@link LogAssertions} and {@link LogExpectation}, which both delegate here.
+ */
 class ExpectedLoggingEvent {
+    private static final int MISMATCH = 100;
+
     private Level level;
+    private String loggerName;
     private String message;
     private String throwableClass;
     private String throwableMessage;
     private Map<String, String> mdc;
     private boolean mdcExactly = false;
 
+    private final List<Level> levels = new ArrayList<>();
+    private final List<String> loggerNames = new ArrayList<>();
+    private final List<String> messages = new ArrayList<>();
+    private final List<String> messageFragments = new ArrayList<>();
+    private final List<String> throwableClasses = new ArrayList<>();
+    private final List<String> throwableMessages = new ArrayList<>();
+    private final List<Throwable> throwables = new ArrayList<>();
+    private final List<Map.Entry<String, String>> mdcEntries = new ArrayList<>();
+    private final List<Integer> mdcSizes = new ArrayList<>();
+
     public ExpectedLoggingEvent() {
     }
 
-    public ExpectedLoggingEvent(Level level, String message, String throwableClass, String throwableMessage, Map<String, String> mdc) {
+    public ExpectedLoggingEvent(Level level, String loggerName, String message, String throwableClass, String throwableMessage, Map<String, String> mdc) {
         this.level = level;
+        this.loggerName = loggerName;
         this.message = message;
         this.throwableClass = throwableClass;
         this.throwableMessage = throwableMessage;
         this.mdc = mdc;
     }
 
+    public ExpectedLoggingEvent withMessage(String message) {
+        setMessage(message);
+        return this;
+    }
+
+    public ExpectedLoggingEvent withMessageContaining(String fragment) {
+        setMessageContaining(fragment);
+        return this;
+    }
+
+    public ExpectedLoggingEvent withLevel(Level level) {
+        setLevel(level);
+        return this;
+    }
+
+    public ExpectedLoggingEvent withLogger(String name) {
+        setLoggerName(name);
+        return this;
+    }
+
+    public ExpectedLoggingEvent withMdcEntry(String key, String value) {
+        return withMdcEntries(Map.of(key, value));
+    }
+
+    public ExpectedLoggingEvent withMdcEntries(Map<String, String> mdcMap) {
+        putMdc(mdcMap);
+        return this;
+    }
+
+    public ExpectedLoggingEvent withMdcEntriesExactly(Map<String, String> mdcMap) {
+        setMdc(new HashMap<>(mdcMap));
+        return this;
+    }
+
+    public ExpectedLoggingEvent withException(Class<? extends Throwable> throwableClass) {
+        setThrowableClass(throwableClass.getName());
+        return this;
+    }
+
+    public ExpectedLoggingEvent withException(Class<? extends Throwable> throwableClass, String message) {
+        setThrowableClass(throwableClass.getName());
+        setThrowableMessage(message);
+        return this;
+    }
+
+    public ExpectedLoggingEvent withException(Throwable throwable) {
+        setThrowable(throwable);
+        return this;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
     public void setLevel(Level level) {
         this.level = level;
+        this.levels.add(level);
+    }
+
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+        this.loggerNames.add(loggerName);
     }
 
     public void setMessage(String message) {
         this.message = message;
+        this.messages.add(message);
+    }
+
+    public void setMessageContaining(String fragment) {
+        this.message = "*" + fragment + "*";
+        this.messageFragments.add(fragment);
+    }
+
+    public String getThrowableClass() {
+        return throwableClass;
     }
 
     public void setThrowableClass(String throwableClass) {
         this.throwableClass = throwableClass;
+        this.throwableClasses.add(throwableClass);
     }
 
     public void setThrowableMessage(String throwableMessage) {
         this.throwableMessage = throwableMessage;
+        this.throwableMessages.add(throwableMessage);
+    }
+
+    public void setThrowable(Throwable throwable) {
+        this.throwableClass = throwable.getClass().getName();
+        this.throwableMessage = throwable.getMessage();
+        this.throwables.add(throwable);
     }
 
     public void setMdc(Map<String, String> mdc) {
         this.mdc = mdc;
         this.mdcExactly = true;
+        this.mdcEntries.addAll(mdc.entrySet());
+        this.mdcSizes.add(mdc.size());
+    }
+
+    public Map<String, String> getMdc() {
+        return mdc;
     }
 
     public boolean isMdcExactly() {
@@ -59,6 +169,150 @@ class ExpectedLoggingEvent {
         } else {
             this.mdc.putAll(mdc);
         }
+        this.mdcEntries.addAll(mdc.entrySet());
+    }
+
+    public EventMatcher compile() {
+        var unsatisfiable = levels.stream().distinct().count() > 1
+                || loggerNames.stream().distinct().count() > 1
+                || throwableClasses.stream().distinct().count() > 1
+                || mdcSizes.stream().distinct().count() > 1;
+
+        return new EventMatcher(
+                unsatisfiable,
+                levels.isEmpty() ? null : levels.get(0),
+                loggerNames.isEmpty() ? null : loggerNames.get(0),
+                mdcSizes.isEmpty() ? -1 : mdcSizes.get(0),
+                mdcEntries.stream().map(x -> x.getKey()).toArray(String[]::new),
+                mdcEntries.stream().map(x -> x.getValue()).toArray(String[]::new),
+                throwableClasses.isEmpty() ? null : throwableClasses.get(0),
+                throwableMessages.toArray(String[]::new),
+                messages.toArray(String[]::new),
+                messageFragments.toArray(String[]::new),
+                throwables.toArray(Throwable[]::new));
+    }
+
+    public List<ILoggingEvent> nearestMisses(List<ILoggingEvent> events, int count) {
+        var nearest = new PriorityQueue<Miss>(count + 1, Comparator.comparingInt((Miss x) -> x.distance).thenComparingInt(x -> x.index).reversed());
+        var index = 0;
+        for (var event : events) {
+            var limit = nearest.size() < count ? Integer.MAX_VALUE - 1 : nearest.peek().distance - 1;
+            var distance = distance(event, limit);
+            if (distance <= limit) {
+                nearest.add(new Miss(event, distance, index));
+                if (nearest.size() > count) {
+                    nearest.poll();
+                }
+            }
+            index++;
+        }
+
+        return nearest.stream()
+                .sorted(Comparator.comparingInt((Miss x) -> x.distance).thenComparingInt(x -> x.index))
+                .map(x -> x.event)
+                .collect(Collectors.toList());
+    }
+
+    private int distance(ILoggingEvent event, int limit) {
+        var distance = 0;
+        for (var expected : levels) {
+            distance += expected == event.getLevel() ? 0 : MISMATCH;
+        }
+        for (var expected : loggerNames) {
+            distance += expected.equals(event.getLoggerName()) ? 0 : MISMATCH;
+        }
+        var mdc = event.getMDCPropertyMap();
+        for (var entry : mdcEntries) {
+            distance += entry.getValue().equals(mdc.get(entry.getKey())) ? 0 : MISMATCH;
+        }
+        for (var size : mdcSizes) {
+            distance += size == mdc.size() ? 0 : MISMATCH;
+        }
+        var throwableProxy = event.getThrowableProxy();
+        for (var expected : throwableClasses) {
+            distance += throwableProxy != null && expected.equals(throwableProxy.getClassName()) ? 0 : MISMATCH;
+        }
+        for (var expected : throwableMessages) {
+            distance += throwableProxy != null && Objects.equals(expected, throwableProxy.getMessage()) ? 0 : MISMATCH;
+        }
+        for (var expected : throwables) {
+            distance += throwableProxy != null && expected.getClass().getName().equals(throwableProxy.getClassName()) ? 0 : MISMATCH;
+        }
+        if (distance > limit || (messages.isEmpty() && messageFragments.isEmpty())) {
+            return distance;
+        }
+
+        var formattedMessage = String.valueOf(event.getFormattedMessage());
+        for (var fragment : messageFragments) {
+            distance += formattedMessage.contains(fragment) ? 0 : MISMATCH;
+        }
+        for (var expected : messages) {
+            if (distance > limit) {
+                return distance;
+            }
+            distance += editDistance(expected, formattedMessage, Math.min(MISMATCH, limit - distance + 1));
+        }
+        return distance;
+    }
+
+    static int editDistance(String expected, String actual, int limit) {
+        if (Math.abs(expected.length() - actual.length()) >= limit) {
+            return limit;
+        }
+
+        var previous = new int[actual.length() + 1];
+        var current = new int[actual.length() + 1];
+        for (int j = 0; j <= actual.length(); j++) {
+            previous[j] = Math.min(j, limit);
+        }
+
+        for (int i = 1; i <= expected.length(); i++) {
+            var from = Math.max(1, i - limit + 1);
+            var to = Math.min(actual.length(), i + limit - 1);
+            current[from - 1] = from == 1 ? Math.min(i, limit) : limit;
+            var rowMinimum = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                var substitution = previous[j - 1] + (expected.charAt(i - 1) == actual.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(limit, Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1));
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < actual.length()) {
+                current[to + 1] = limit;
+            }
+            if (rowMinimum >= limit) {
+                return limit;
+            }
+            var swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[actual.length()];
+    }
+
+    private static class Miss {
+        private final ILoggingEvent event;
+        private final int distance;
+        private final int index;
+
+        private Miss(ILoggingEvent event, int distance, int index) {
+            this.event = event;
+            this.distance = distance;
+            this.index = index;
+        }
+    }
+
+    public static ExpectedLoggingEvent union(List<ExpectedLoggingEvent> expectations) {
+        var result = new ExpectedLoggingEvent();
+        for (var expected : expectations) {
+            result.level = result.level != null ? result.level : expected.level;
+            result.loggerName = result.loggerName != null ? result.loggerName : expected.loggerName;
+            result.message = result.message != null ? result.message : expected.message;
+            result.throwableClass = result.throwableClass != null ? result.throwableClass : expected.throwableClass;
+            result.throwableMessage = result.throwableMessage != null ? result.throwableMessage : expected.throwableMessage;
+            result.mdc = result.mdc != null ? result.mdc : expected.mdc;
+        }
+        return result;
     }
 
     public String format() {
@@ -66,7 +320,7 @@ class ExpectedLoggingEvent {
                 .map(x -> throwableMessage != null ? throwableClass + ": " + throwableMessage : throwableClass)
                 .orElse(null);
 
-        return "[" + Stream.of(level, message, exceptionString, mdc)
+        return "[" + Stream.of(level, loggerName, message, exceptionString, mdc)
                 .filter(x -> x != null)
                 .map(x -> x.toString())
                 .collect(Collectors.joining(", ")) + "]";
@@ -75,9 +329,10 @@ class ExpectedLoggingEvent {
     public String format(ILoggingEvent event) {
         return new ExpectedLoggingEvent(
                 level == null ? null : event.getLevel(),
+                loggerName == null ? null : event.getLoggerName(),
                 message == null ? null : event.getFormattedMessage(),
-                throwableClass == null ? null : event.getThrowableProxy().getClassName(),
-                throwableMessage == null ? null : event.getThrowableProxy().getMessage(),
+                throwableClass == null || event.getThrowableProxy() == null ? null : event.getThrowableProxy().getClassName(),
+                throwableMessage == null || event.getThrowableProxy() == null ? null : event.getThrowableProxy().getMessage(),
                 mdc == null ? null : event.getMDCPropertyMap()).format();
     }
 }
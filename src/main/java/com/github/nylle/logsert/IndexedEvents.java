@@ -0,0 +1,10 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.List;
+
+interface IndexedEvents {
+
+    List<ILoggingEvent> lookup(ExpectedLoggingEvent expected);
+}
@@ -0,0 +1,96 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads one event per line as written by logback's JSON encoder or logstash-style encoders. MDC entries are taken from
+ * an {@code mdc} object, or else from the top-level fields that are not known event fields.
+ */
+class JsonLinesFormat implements LogFormat {
+
+    private static final Set<String> KNOWN_FIELDS = Set.of(
+            "@timestamp", "@version", "timestamp", "timeStamp", "nanoseconds", "sequenceNumber",
+            "level", "level_value", "loggerName", "logger_name", "logger", "threadName", "thread_name", "thread",
+            "message", "formattedMessage", "msg", "arguments", "markers", "tags", "kvpList", "context", "contextName",
+            "throwable", "exception", "stack_trace", "mdc");
+
+    @Override
+    public boolean isRecordStart(String line) {
+        return line.startsWith("{");
+    }
+
+    @Override
+    public boolean hasContinuationLines() {
+        return false;
+    }
+
+    @Override
+    public ILoggingEvent parse(String line, List<String> continuationLines) {
+        var fields = Json.parseObject(line);
+        return new DetachedEvent(
+                Level.toLevel(string(fields, "level"), null),
+                string(fields, "loggerName", "logger_name", "logger"),
+                string(fields, "threadName", "thread_name", "thread"),
+                string(fields, "formattedMessage", "message", "msg"),
+                timeStamp(fields),
+                mdc(fields),
+                throwable(fields));
+    }
+
+    private static long timeStamp(Map<String, Object> fields) {
+        var millis = string(fields, "timestamp", "timeStamp");
+        try {
+            if (millis != null) {
+                return Long.parseLong(millis);
+            }
+            var iso = string(fields, "@timestamp");
+            return iso == null ? 0 : OffsetDateTime.parse(iso).toInstant().toEpochMilli();
+        } catch (NumberFormatException | DateTimeException ex) {
+            return 0;
+        }
+    }
+
+    private static Map<String, String> mdc(Map<String, Object> fields) {
+        var mdc = new HashMap<String, String>();
+        var nested = fields.get("mdc");
+        if (nested instanceof Map) {
+            ((Map<?, ?>) nested).forEach((key, value) -> mdc.put(String.valueOf(key), value == null ? null : String.valueOf(value)));
+            return mdc;
+        }
+        fields.forEach((key, value) -> {
+            if (!KNOWN_FIELDS.contains(key) && value instanceof String) {
+                mdc.put(key, (String) value);
+            }
+        });
+        return mdc;
+    }
+
+    private static DetachedEvent.ThrowableSummary throwable(Map<String, Object> fields) {
+        var throwable = fields.get("throwable");
+        if (throwable instanceof Map) {
+            var map = (Map<?, ?>) throwable;
+            var className = map.containsKey("className") ? map.get("className") : map.get("class");
+            return new DetachedEvent.ThrowableSummary(String.valueOf(className), map.get("message") == null ? null : String.valueOf(map.get("message")));
+        }
+        var stackTrace = string(fields, "stack_trace", "exception");
+        return stackTrace == null || stackTrace.isBlank() ? null : PatternFormat.throwableHeader(stackTrace.lines().findFirst().orElse(""));
+    }
+
+    private static String string(Map<String, Object> fields, String... names) {
+        for (var name : names) {
+            var value = fields.get(name);
+            if (value != null && !(value instanceof Map) && !(value instanceof List)) {
+                return String.valueOf(value);
+            }
+        }
+        return null;
+    }
+}
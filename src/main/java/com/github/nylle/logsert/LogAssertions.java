@@ -2,122 +2,310 @@ package com.github.nylle.logsert;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.classic.spi.IThrowableProxy;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.assertj.core.api.AbstractAssert;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
-public class LogAssertions extends AbstractAssert<LogAssertions, LogRecorder> {
+public class LogAssertions extends AbstractAssert<LogAssertions, LogSource> {
 
-    private Stream<ILoggingEvent> candidates;
+    private static final int NEAREST_MISSES = 3;
+    private static final int PARALLEL_THRESHOLD = 100_000;
+
+    private List<ILoggingEvent> events;
     private final ExpectedLoggingEvent expected = new ExpectedLoggingEvent();
+    private LogListing listing;
+    private Duration timeout;
+    private int parallelThreshold;
+    private AssertionMetrics metrics;
 
-    private LogAssertions(LogRecorder actual) {
+    private LogAssertions(LogSource actual, LogListing listing, Duration timeout, int parallelThreshold, AssertionMetrics metrics) {
         super(actual, LogAssertions.class);
-        this.candidates = actual.getLogEvents().stream();
+        this.events = actual.getLogEvents();
+        this.listing = listing;
+        this.timeout = timeout;
+        this.parallelThreshold = parallelThreshold;
+        this.metrics = metrics;
     }
 
     public static LogAssertions assertThat(LogRecorder actual) {
-        return new LogAssertions(actual);
+        return assertThat((LogSource) actual);
+    }
+
+    public static LogAssertions assertThat(LogSource actual) {
+        var metrics = actual instanceof LogRecorder ? ((LogRecorder) actual).getAssertionMetrics() : null;
+        return new LogAssertions(actual, new LogListing(LogListing.DEFAULT_LIMIT, null), null, PARALLEL_THRESHOLD, metrics);
+    }
+
+    public LogAssertions within(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    public LogAssertions publishingMetricsTo(MeterRegistry registry) {
+        this.metrics = new AssertionMetrics(registry);
+        return this;
+    }
+
+    public LogAssertions parallelAbove(int events) {
+        this.parallelThreshold = events;
+        return this;
+    }
+
+    public LogAssertions listingAtMost(int events) {
+        this.listing = listing.withLimit(events);
+        return this;
+    }
+
+    public LogAssertions spillingListingTo(Path file) {
+        this.listing = listing.withSpillFile(file);
+        return this;
     }
 
     public LogAssertions withMessage(String message) {
-        this.candidates = this.candidates.filter(x -> x.getFormattedMessage().equals(message));
-        this.expected.setMessage(message);
+        this.expected.withMessage(message);
         return this;
     }
 
     public LogAssertions withMessageContaining(String message) {
-        this.candidates = this.candidates.filter(x -> x.getFormattedMessage().contains(message));
-        this.expected.setMessage("*" + message + "*");
+        this.expected.withMessageContaining(message);
         return this;
     }
 
     public LogAssertions withLevel(Level level) {
-        this.candidates = this.candidates.filter(x -> x.getLevel().equals(level));
-        this.expected.setLevel(level);
+        this.expected.withLevel(level);
+        return this;
+    }
+
+    public LogAssertions withLogger(String name) {
+        this.expected.withLogger(name);
         return this;
     }
 
     public LogAssertions withMdcEntry(String key, String value) {
-        return withMdcEntries(Map.of(key, value));
+        this.expected.withMdcEntry(key, value);
+        return this;
     }
 
     public LogAssertions withMdcEntries(Map<String, String> mdcMap) {
-        this.candidates = this.candidates.filter(x -> x.getMDCPropertyMap().entrySet().containsAll(mdcMap.entrySet()));
-        this.expected.putMdc(mdcMap);
+        this.expected.withMdcEntries(mdcMap);
         return this;
     }
 
     public LogAssertions withMdcEntriesExactly(Map<String, String> mdcMap) {
-        this.candidates = this.candidates.filter(x -> x.getMDCPropertyMap().size() == mdcMap.size() && x.getMDCPropertyMap().entrySet().containsAll(mdcMap.entrySet()));
-        this.expected.setMdc(new HashMap<>(mdcMap));
+        this.expected.withMdcEntriesExactly(mdcMap);
         return this;
     }
 
     public LogAssertions withException(Class<? extends Throwable> throwableClass) {
-        this.candidates = this.candidates.filter(x -> x.getThrowableProxy().getClassName().equals(throwableClass.getName()));
-        this.expected.setThrowableClass(throwableClass.getName());
+        this.expected.withException(throwableClass);
         return this;
     }
 
     public LogAssertions withException(Class<? extends Throwable> throwableClass, String message) {
-        this.candidates = this.candidates.filter(x -> x.getThrowableProxy().getClassName().equals(throwableClass.getName()) && x.getThrowableProxy().getMessage().equals(message));
-        this.expected.setThrowableClass(throwableClass.getName());
-        this.expected.setThrowableMessage(message);
+        this.expected.withException(throwableClass, message);
         return this;
     }
 
     public LogAssertions withException(Throwable throwable) {
-        this.candidates = this.candidates.filter(x -> reflectThrowable(x.getThrowableProxy()).equals(throwable));
-        this.expected.setThrowableClass(throwable.getClass().getName());
-        this.expected.setThrowableMessage(throwable.getMessage());
+        this.expected.withException(throwable);
         return this;
     }
 
     public LogAssertions containsLogs() {
         isNotNull();
+        await(found -> found > 0, found -> false);
 
-        if (this.candidates.findAny().isEmpty()) {
-            failWithMessage("\nExpecting log:\n  %s\nto contain%s:\n  %s\nat least once but was not found",
-                    actual.getLogEvents().stream().map(x -> expected.format(x)).collect(toList()).toString().replace("], ", "],\n   "),
+        var scanned = new LongAdder();
+        var start = System.nanoTime();
+        var found = candidates(scanned).findAny().isPresent();
+        evaluated("containsLogs", scanned, start);
+
+        if (!found) {
+            fail("containsLogs", "\nExpecting log:\n  %s\nto contain%s:\n  %s\nat least once but was not found%s%s", () -> new Object[]{
+                    formatLog(expected),
                     expected.isMdcExactly() ? " exactly" : "",
-                    List.of(expected.format()));
+                    List.of(expected.format()),
+                    formatNearestMisses(),
+                    formatEvictions()});
         }
 
-        return new LogAssertions(actual);
+        return new LogAssertions(actual, listing, timeout, parallelThreshold, metrics);
     }
 
     public LogAssertions containsLogs(int count) {
         isNotNull();
+        await(found -> found == count, found -> found > count);
+
+        var scanned = new LongAdder();
+        var start = System.nanoTime();
+        var candidateCount = candidates(scanned).count();
+        evaluated("containsLogs", scanned, start);
 
-        var candidateCount = this.candidates.count();
         if (candidateCount != count) {
-            failWithMessage("\nExpecting log:\n  %s\nto contain%s:\n  %s\n%s times but found %s times",
-                    actual.getLogEvents().stream().map(x -> expected.format(x)).collect(toList()).toString().replace("], ", "],\n   "),
+            fail("containsLogs", "\nExpecting log:\n  %s\nto contain%s:\n  %s\n%s times but found %s times%s%s", () -> new Object[]{
+                    formatLog(expected),
                     expected.isMdcExactly() ? " exactly" : "",
                     List.of(expected.format()),
                     count,
-                    candidateCount);
+                    candidateCount,
+                    candidateCount == 0 ? formatNearestMisses() : "",
+                    formatEvictions()});
+        }
+
+        return new LogAssertions(actual, listing, timeout, parallelThreshold, metrics);
+    }
+
+    public LogAssertions containsAll(LogExpectation... expectations) {
+        isNotNull();
+
+        var matchers = Arrays.stream(expectations).map(x -> x.getExpected().compile()).toArray(EventMatcher[]::new);
+        await(expected.compile(), matchers,
+                found -> IntStream.range(0, expectations.length).allMatch(i -> expectations[i].isSatisfiedBy(found[i])),
+                found -> IntStream.range(0, expectations.length).anyMatch(i -> expectations[i].isExceededBy(found[i])));
+
+        var scanned = new LongAdder();
+        var start = System.nanoTime();
+        var found = candidates(scanned).collect(() -> new long[matchers.length], (counts, event) -> {
+            for (int i = 0; i < matchers.length; i++) {
+                if (matchers[i].test(event)) {
+                    counts[i]++;
+                }
+            }
+        }, (counts, other) -> {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other[i];
+            }
+        });
+        evaluated("containsAll", scanned, start);
+
+        var failures = IntStream.range(0, expectations.length)
+                .filter(i -> !expectations[i].isSatisfiedBy(found[i]))
+                .boxed()
+                .collect(toList());
+
+        if (!failures.isEmpty()) {
+            fail("containsAll", "\nExpecting log:\n  %s\n%s%s", () -> new Object[]{
+                    formatLog(ExpectedLoggingEvent.union(failures.stream().map(i -> expectations[i].getExpected()).collect(toList()))),
+                    failures.stream().map(i -> expectations[i].formatFailure(found[i])).collect(joining("\nand ")),
+                    formatEvictions()});
+        }
+
+        return new LogAssertions(actual, listing, timeout, parallelThreshold, metrics);
+    }
+
+    private void await(LongPredicate satisfied, LongPredicate unsatisfiable) {
+        await(null, new EventMatcher[]{expected.compile()}, found -> satisfied.test(found[0]), found -> unsatisfiable.test(found[0]));
+    }
+
+    private void await(EventMatcher filter, EventMatcher[] matchers, Predicate<long[]> satisfied, Predicate<long[]> unsatisfiable) {
+        if (timeout == null || !(actual instanceof LogRecorder)) {
+            return;
+        }
+        var recorder = (LogRecorder) actual;
+
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var found = new long[matchers.length];
+        var scanned = 0;
+        while (true) {
+            var appended = recorder.getAppendedCount();
+            var snapshot = recorder.getLogEvents();
+            if (recorder.getEvictedCount() > 0) {
+                Arrays.fill(found, 0);
+                scanned = 0;
+            }
+            for (var event : snapshot.subList(Math.min(scanned, snapshot.size()), snapshot.size())) {
+                if (filter != null && !filter.test(event)) {
+                    continue;
+                }
+                for (int i = 0; i < matchers.length; i++) {
+                    if (matchers[i].test(event)) {
+                        found[i]++;
+                    }
+                }
+            }
+            scanned = snapshot.size();
+
+            var remaining = deadline - System.nanoTime();
+            if (satisfied.test(found) || unsatisfiable.test(found) || remaining <= 0) {
+                break;
+            }
+            recorder.awaitAppended(appended, remaining);
         }
 
-        return new LogAssertions(actual);
+        this.events = actual.getLogEvents();
+    }
+
+    private Stream<ILoggingEvent> candidates(LongAdder scanned) {
+        var candidates = events instanceof IndexedEvents ? ((IndexedEvents) events).lookup(expected) : events;
+        var stream = candidates.stream();
+        if (candidates instanceof RandomAccess) {
+            stream = candidates.size() > parallelThreshold ? stream.parallel() : stream.sequential();
+        }
+        if (metrics != null) {
+            stream = stream.peek(x -> scanned.increment());
+        }
+        return stream.filter(expected.compile());
     }
 
-    @SuppressWarnings({"java:S3011", "java:S112"})
-    private static Throwable reflectThrowable(IThrowableProxy throwableProxy) {
-        try {
-            var throwable = Arrays.stream(throwableProxy.getClass().getDeclaredFields()).filter(x -> x.getName().equals("throwable")).findFirst().orElseThrow();
-            throwable.setAccessible(true);
-            return (Throwable) throwable.get(throwableProxy);
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
+    private void evaluated(String assertion, LongAdder scanned, long start) {
+        if (metrics != null) {
+            metrics.evaluated(assertion, scanned.sum(), System.nanoTime() - start);
         }
     }
-}
\ No newline at end of file
+
+    private void fail(String assertion, String format, Supplier<Object[]> arguments) {
+        var start = System.nanoTime();
+        var message = String.format(format, arguments.get());
+        if (metrics != null) {
+            metrics.rendered(assertion, System.nanoTime() - start);
+        }
+        failWithMessage("%s", message);
+    }
+
+    private String formatLog(ExpectedLoggingEvent format) {
+        return listing.render(events, format);
+    }
+
+    private String formatNearestMisses() {
+        var nearest = expected.nearestMisses(events, NEAREST_MISSES);
+        if (nearest.isEmpty()) {
+            return "";
+        }
+
+        return "\nclosest events were:\n  " + nearest.stream().map(x -> expected.format(x)).collect(joining(",\n  "));
+    }
+
+    private String formatEvictions() {
+        if (!(actual instanceof LogRecorder)) {
+            return "";
+        }
+        var recorder = (LogRecorder) actual;
+        var evicted = expected.getLevel() == null
+                ? recorder.getEvictedCount()
+                : recorder.getEvictedCountByLevel().getOrDefault(expected.getLevel(), 0L);
+
+        if (evicted == 0) {
+            return "";
+        }
+
+        return String.format("\n(%s evicted events could have matched; evicted by level: %s, by logger: %s)",
+                evicted,
+                recorder.getEvictedCountByLevel(),
+                recorder.getEvictedCountByLogger());
+    }
+}
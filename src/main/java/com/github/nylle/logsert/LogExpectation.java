@@ -0,0 +1,95 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+
+import java.util.List;
+import java.util.Map;
+
+public class LogExpectation {
+
+    private final ExpectedLoggingEvent expected = new ExpectedLoggingEvent();
+    private Integer count;
+
+    private LogExpectation() {
+    }
+
+    public static LogExpectation logs() {
+        return new LogExpectation();
+    }
+
+    public LogExpectation withMessage(String message) {
+        this.expected.withMessage(message);
+        return this;
+    }
+
+    public LogExpectation withMessageContaining(String message) {
+        this.expected.withMessageContaining(message);
+        return this;
+    }
+
+    public LogExpectation withLevel(Level level) {
+        this.expected.withLevel(level);
+        return this;
+    }
+
+    public LogExpectation withLogger(String name) {
+        this.expected.withLogger(name);
+        return this;
+    }
+
+    public LogExpectation withMdcEntry(String key, String value) {
+        this.expected.withMdcEntry(key, value);
+        return this;
+    }
+
+    public LogExpectation withMdcEntries(Map<String, String> mdcMap) {
+        this.expected.withMdcEntries(mdcMap);
+        return this;
+    }
+
+    public LogExpectation withMdcEntriesExactly(Map<String, String> mdcMap) {
+        this.expected.withMdcEntriesExactly(mdcMap);
+        return this;
+    }
+
+    public LogExpectation withException(Class<? extends Throwable> throwableClass) {
+        this.expected.withException(throwableClass);
+        return this;
+    }
+
+    public LogExpectation withException(Class<? extends Throwable> throwableClass, String message) {
+        this.expected.withException(throwableClass, message);
+        return this;
+    }
+
+    public LogExpectation withException(Throwable throwable) {
+        this.expected.withException(throwable);
+        return this;
+    }
+
+    public LogExpectation times(int count) {
+        this.count = count;
+        return this;
+    }
+
+    ExpectedLoggingEvent getExpected() {
+        return expected;
+    }
+
+    boolean isSatisfiedBy(long found) {
+        return count == null ? found > 0 : found == count;
+    }
+
+    boolean isExceededBy(long found) {
+        return count != null && found > count;
+    }
+
+    String formatFailure(long found) {
+        return String.format("to contain%s:\n  %s\n%s",
+                expected.isMdcExactly() ? " exactly" : "",
+                List.of(expected.format()),
+                count == null
+                        ? "at least once but was not found"
+                        : count + " times but found " + found + " times");
+    }
+}
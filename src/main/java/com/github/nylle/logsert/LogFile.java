@@ -0,0 +1,168 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A log file written by a service, read as events for {@link LogAssertions}. The file is streamed through memory
+ * mappings in chunks that are split at line boundaries and evaluated in parallel, so it is never loaded as a whole.
+ */
+public class LogFile implements LogSource {
+
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+    private final Path path;
+    private final LogFormat format;
+    private final long minChunkSize;
+
+    LogFile(Path path, LogFormat format, long minChunkSize) {
+        this.path = path;
+        this.format = format;
+        this.minChunkSize = minChunkSize;
+    }
+
+    public static LogFile jsonLines(Path path) {
+        return new LogFile(path, new JsonLinesFormat(), MIN_CHUNK_SIZE);
+    }
+
+    public static LogFile pattern(Path path, String pattern) {
+        return new LogFile(path, new PatternFormat(pattern), MIN_CHUNK_SIZE);
+    }
+
+    @Override
+    public List<ILoggingEvent> getLogEvents() {
+        try {
+            return new Events(Files.size(path));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * The events of the file as it was when they were requested. Streams are parallel and iteration is sequential.
+     */
+    private class Events extends AbstractList<ILoggingEvent> {
+
+        private final long size;
+        private int count = -1;
+
+        private Events(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public ILoggingEvent get(int index) {
+            if (index < 0) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            var iterator = iterator();
+            for (int i = 0; i < index && iterator.hasNext(); i++) {
+                iterator.next();
+            }
+            if (!iterator.hasNext()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return iterator.next();
+        }
+
+        @Override
+        public int size() {
+            if (count < 0) {
+                count = (int) stream().count();
+            }
+            return count;
+        }
+
+        @Override
+        public Iterator<ILoggingEvent> iterator() {
+            return Spliterators.iterator(spliterator());
+        }
+
+        @Override
+        public Spliterator<ILoggingEvent> spliterator() {
+            return new Chunk(0, size, size);
+        }
+
+        @Override
+        public Stream<ILoggingEvent> stream() {
+            return StreamSupport.stream(spliterator(), true);
+        }
+    }
+
+    /**
+     * Events that start within a byte range. The last event may read continuation lines past the end of the range,
+     * and lines at the start of the range that do not start an event belong to the previous chunk.
+     */
+    private class Chunk implements Spliterator<ILoggingEvent> {
+
+        private final MappedLines lines;
+        private long position;
+        private final long end;
+
+        private Chunk(long position, long end, long size) {
+            this.lines = new MappedLines(path, size);
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ILoggingEvent> action) {
+            while (position < end) {
+                var line = lines.read(position);
+                position = lines.next();
+                if (!format.isRecordStart(line)) {
+                    continue;
+                }
+                var continuationLines = new ArrayList<String>();
+                while (format.hasContinuationLines() && position < lines.size()) {
+                    var continuation = lines.read(position);
+                    if (format.isRecordStart(continuation)) {
+                        break;
+                    }
+                    continuationLines.add(continuation);
+                    position = lines.next();
+                }
+                action.accept(format.parse(line, continuationLines));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<ILoggingEvent> trySplit() {
+            if (end - position < 2 * minChunkSize) {
+                return null;
+            }
+            var middle = lines.lineStartFrom(position + (end - position) / 2);
+            if (middle <= position || middle >= end) {
+                return null;
+            }
+            var prefix = new Chunk(position, middle, lines.size());
+            position = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
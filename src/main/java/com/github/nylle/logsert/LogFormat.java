@@ -0,0 +1,16 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.List;
+
+interface LogFormat {
+
+    boolean isRecordStart(String line);
+
+    default boolean hasContinuationLines() {
+        return true;
+    }
+
+    ILoggingEvent parse(String line, List<String> continuationLines);
+}
@@ -0,0 +1,81 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders recorded events for failure messages. Only the first events up to the limit are formatted, the rest is
+ * summarized by level and logger and can optionally be streamed to a file in full.
+ */
+class LogListing {
+
+    static final int DEFAULT_LIMIT = 100;
+
+    private final int limit;
+    private final Path spillFile;
+
+    LogListing(int limit, Path spillFile) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative but was " + limit);
+        }
+        this.limit = limit;
+        this.spillFile = spillFile;
+    }
+
+    public LogListing withLimit(int limit) {
+        return new LogListing(limit, spillFile);
+    }
+
+    public LogListing withSpillFile(Path spillFile) {
+        return new LogListing(limit, spillFile);
+    }
+
+    public String render(List<ILoggingEvent> events, ExpectedLoggingEvent format) {
+        var listed = new StringBuilder("[");
+        var elidedByLevel = new LinkedHashMap<String, Long>();
+        var elidedByLogger = new LinkedHashMap<String, Long>();
+        var elided = 0L;
+
+        try (var spill = spillFile == null ? null : Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8)) {
+            var index = 0;
+            for (var event : events) {
+                if (index < limit) {
+                    listed.append(index == 0 ? "" : ",\n   ").append(format.format(event));
+                } else {
+                    elided++;
+                    elidedByLevel.merge(String.valueOf(event.getLevel()), 1L, Long::sum);
+                    elidedByLogger.merge(event.getLoggerName(), 1L, Long::sum);
+                }
+                spill(spill, format, event);
+                index++;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        listed.append("]");
+        if (elided > 0) {
+            listed.append(String.format("\n  and %s more events not listed (by level: %s, by logger: %s)", elided, elidedByLevel, elidedByLogger));
+        }
+        if (spillFile != null) {
+            listed.append("\n  full listing written to ").append(spillFile.toAbsolutePath());
+        }
+        return listed.toString();
+    }
+
+    private static void spill(BufferedWriter spill, ExpectedLoggingEvent format, ILoggingEvent event) throws IOException {
+        if (spill != null) {
+            spill.write(format.format(event));
+            spill.newLine();
+        }
+    }
+}
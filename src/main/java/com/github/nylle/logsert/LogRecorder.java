@@ -1,42 +1,208 @@
 package com.github.nylle.logsert;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
-public class LogRecorder implements BeforeEachCallback, AfterEachCallback {
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
-    private final ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-    private final Logger logger;
+public class LogRecorder implements LogSource, BeforeAllCallback, BeforeEachCallback, AfterEachCallback, AfterAllCallback {
+
+    private final RecordingAppender appender = new RecordingAppender();
+    private final List<Logger> loggers;
+    private final AtomicInteger attachedForAll = new AtomicInteger();
+    private Level level;
+    private boolean nonAdditive;
+    private AssertionMetrics assertionMetrics;
 
     public LogRecorder(Class<?> type) {
-        this.logger = (Logger) LoggerFactory.getLogger(type);
+        this(type.getName());
+    }
+
+    public LogRecorder(Class<?> type, Class<?>... types) {
+        this(type.getName(), Arrays.stream(types).map(x -> x.getName()).toArray(String[]::new));
     }
 
     public LogRecorder(String name) {
-        this.logger = (Logger) LoggerFactory.getLogger(name);
+        this.loggers = List.of((Logger) LoggerFactory.getLogger(name));
+    }
+
+    public LogRecorder(String name, String... names) {
+        var distinct = Stream.concat(Stream.of(name), Arrays.stream(names)).distinct().collect(toList());
+        this.loggers = distinct.stream().map(x -> (Logger) LoggerFactory.getLogger(x)).distinct().collect(toList());
+        appender.setDeduplicating(distinct.stream().anyMatch(x -> distinct.stream().anyMatch(y -> isAncestor(x, y))));
+    }
+
+    public LogRecorder enablingLevel(Level level) {
+        this.level = level;
+        return this;
+    }
+
+    public LogRecorder capturingFrom(Level threshold) {
+        appender.setThreshold(threshold);
+        return this;
+    }
+
+    public LogRecorder suppressingOutput() {
+        this.nonAdditive = true;
+        return this;
+    }
+
+    public LogRecorder withCapacity(int capacity) {
+        appender.setStoreFactory(() -> new RingBuffer(capacity));
+        return this;
+    }
+
+    public LogRecorder storingCompactly() {
+        appender.setStoreFactory(() -> new ColumnarStore());
+        return this;
+    }
+
+    public LogRecorder spillingToDisk(int inMemory) {
+        appender.setStoreFactory(() -> new SpillingStore(inMemory));
+        return this;
+    }
+
+    public LogRecorder publishingMetricsTo(MeterRegistry registry) {
+        var name = loggers.stream().map(x -> x.getName()).collect(joining(","));
+        appender.setMetrics(new RecorderMetrics(registry, name, appender));
+        this.assertionMetrics = new AssertionMetrics(registry);
+        return this;
+    }
+
+    public LogRecorder forbidding(LogExpectation expectation) {
+        appender.forbid(expectation.getExpected());
+        return this;
+    }
+
+    public LogRecorder abortingOnViolation() {
+        appender.setAbortOnViolation(true);
+        return this;
+    }
+
+    public LogRecorder discardingEvents() {
+        appender.setStoreFactory(() -> new DiscardingStore());
+        return this;
     }
 
     @Override
-    public void afterEach(ExtensionContext extensionContext) {
-        listAppender.stop();
-        listAppender.list.clear();
-        logger.detachAppender(listAppender);
+    public void beforeAll(ExtensionContext extensionContext) {
+        if (attachedForAll.getAndIncrement() == 0) {
+            appender.setDroppingUnclaimed(true);
+            attach();
+        }
     }
 
     @Override
     public void beforeEach(ExtensionContext extensionContext) {
-        logger.addAppender(listAppender);
-        listAppender.start();
+        appender.claim(extensionContext);
+        if (attachedForAll.get() == 0) {
+            attach();
+        }
     }
 
+    @Override
+    public void afterEach(ExtensionContext extensionContext) {
+        var violations = appender.release(extensionContext);
+        if (attachedForAll.get() == 0) {
+            detach();
+        }
+
+        if (!violations.isEmpty()) {
+            var failure = new AssertionError(violations.size() + " forbidden log events were recorded, the first was:" + violations.get(0).getMessage());
+            violations.forEach(x -> failure.addSuppressed(x));
+            throw failure;
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext extensionContext) {
+        if (attachedForAll.decrementAndGet() == 0) {
+            detach();
+            appender.setDroppingUnclaimed(false);
+        }
+    }
+
+    private void attach() {
+        loggers.forEach(x -> x.addAppender(appender));
+        if (level != null) {
+            loggers.forEach(x -> LoggerOverrides.lowerLevel(x, level));
+        }
+        if (nonAdditive) {
+            loggers.forEach(x -> LoggerOverrides.suppressAdditivity(x));
+        }
+        appender.start();
+    }
+
+    private void detach() {
+        appender.stop();
+        appender.clear();
+        if (level != null) {
+            loggers.forEach(x -> LoggerOverrides.restoreLevel(x, level));
+        }
+        if (nonAdditive) {
+            loggers.forEach(x -> LoggerOverrides.restoreAdditivity(x));
+        }
+        loggers.forEach(x -> x.detachAppender(appender));
+    }
+
+    private static boolean isAncestor(String ancestor, String name) {
+        return !name.equals(ancestor) && (ancestor.equalsIgnoreCase(Logger.ROOT_LOGGER_NAME) || name.startsWith(ancestor + "."));
+    }
+
+    public Executor propagating(Executor executor) {
+        return task -> executor.execute(RecordingAppender.propagate(task));
+    }
+
+    public Runnable propagating(Runnable task) {
+        return RecordingAppender.propagate(task);
+    }
+
+    @Override
     public List<ILoggingEvent> getLogEvents() {
-        return listAppender.list;
+        return appender.getStore().snapshot();
+    }
+
+    AssertionMetrics getAssertionMetrics() {
+        return assertionMetrics;
+    }
+
+    long getAppendedCount() {
+        return appender.getStore().appendedCount();
+    }
+
+    void awaitAppended(long appendedCount, long timeoutNanos) {
+        appender.awaitAppended(appendedCount, timeoutNanos);
+    }
+
+    public List<AssertionError> getViolations() {
+        return appender.getViolations();
+    }
+
+    public long getEvictedCount() {
+        return appender.getStore().evictedCount();
+    }
+
+    public Map<Level, Long> getEvictedCountByLevel() {
+        return appender.getStore().evictedCountByLevel();
+    }
+
+    public Map<String, Long> getEvictedCountByLogger() {
+        return appender.getStore().evictedCountByLogger();
     }
 }
@@ -0,0 +1,13 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.List;
+
+/**
+ * Events that {@link LogAssertions} can check, either recorded by a {@link LogRecorder} or read from a {@link LogFile}.
+ */
+public interface LogSource {
+
+    List<ILoggingEvent> getLogEvents();
+}
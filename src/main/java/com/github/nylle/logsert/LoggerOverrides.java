@@ -0,0 +1,86 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Overrides logger settings while recorders need them and restores the configured settings once the last recorder
+ * releases its logger, so that recorders running in parallel on the same logger do not undo each other.
+ */
+final class LoggerOverrides {
+
+    private static final Map<Logger, LevelOverride> LEVELS = new HashMap<>();
+    private static final Map<Logger, AdditivityOverride> ADDITIVITY = new HashMap<>();
+
+    private LoggerOverrides() {
+    }
+
+    static synchronized void lowerLevel(Logger logger, Level level) {
+        var override = LEVELS.computeIfAbsent(logger, x -> new LevelOverride(x.getLevel(), x.getEffectiveLevel()));
+        override.requested.add(level);
+        logger.setLevel(override.mostVerbose());
+    }
+
+    static synchronized void restoreLevel(Logger logger, Level level) {
+        var override = LEVELS.get(logger);
+        if (override == null || !override.requested.remove(level)) {
+            return;
+        }
+        if (override.requested.isEmpty()) {
+            LEVELS.remove(logger);
+            logger.setLevel(override.configured);
+        } else {
+            logger.setLevel(override.mostVerbose());
+        }
+    }
+
+    static synchronized void suppressAdditivity(Logger logger) {
+        var override = ADDITIVITY.computeIfAbsent(logger, x -> new AdditivityOverride(x.isAdditive()));
+        override.count++;
+        logger.setAdditive(false);
+    }
+
+    static synchronized void restoreAdditivity(Logger logger) {
+        var override = ADDITIVITY.get(logger);
+        if (override == null || --override.count > 0) {
+            return;
+        }
+        ADDITIVITY.remove(logger);
+        logger.setAdditive(override.configured);
+    }
+
+    private static class LevelOverride {
+        private final Level configured;
+        private final Level effective;
+        private final List<Level> requested = new ArrayList<>();
+
+        private LevelOverride(Level configured, Level effective) {
+            this.configured = configured;
+            this.effective = effective;
+        }
+
+        private Level mostVerbose() {
+            var result = effective;
+            for (var level : requested) {
+                if (!level.isGreaterOrEqual(result)) {
+                    result = level;
+                }
+            }
+            return result;
+        }
+    }
+
+    private static class AdditivityOverride {
+        private final boolean configured;
+        private int count;
+
+        private AdditivityOverride(boolean configured) {
+            this.configured = configured;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.nylle.logsert;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads lines of a file through a memory-mapped window that is moved forward as reading proceeds, so files larger than
+ * the heap, or than a single mapping, can be streamed.
+ */
+class MappedLines {
+
+    private static final int WINDOW_SIZE = 256 << 20;
+
+    private final Path path;
+    private final long size;
+    private final int windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long next;
+
+    MappedLines(Path path, long size) {
+        this(path, size, WINDOW_SIZE);
+    }
+
+    MappedLines(Path path, long size, int windowSize) {
+        this.path = path;
+        this.size = size;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Reads the line starting at a position, without its line terminator. {@link #next()} is then the position of the
+     * following line.
+     */
+    String read(long position) {
+        if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+            map(position);
+        }
+        var end = findLineEnd(position);
+        if (end == windowStart + window.limit() && end < size && position > windowStart) {
+            map(position);
+            end = findLineEnd(position);
+        }
+        next = end < size ? end + 1 : end;
+        var length = (int) (end - position);
+        if (length > 0 && window.get((int) (end - 1 - windowStart)) == '\r') {
+            length--;
+        }
+        var bytes = new byte[length];
+        window.duplicate().position((int) (position - windowStart)).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    long next() {
+        return next;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Returns the start of the first line at or after a position.
+     */
+    long lineStartFrom(long position) {
+        if (position <= 0) {
+            return 0;
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocate(8192);
+            var offset = position - 1;
+            while (offset < size) {
+                buffer.clear();
+                var read = channel.read(buffer, offset);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        return offset + i + 1;
+                    }
+                }
+                offset += read;
+            }
+            return size;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private long findLineEnd(long position) {
+        var limit = window.limit();
+        for (var i = (int) (position - windowStart); i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return windowStart + i;
+            }
+        }
+        return windowStart + limit;
+    }
+
+    private void map(long position) {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, windowSize));
+            windowStart = position;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -9,44 +9,83 @@ import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
 import org.assertj.core.api.AbstractAssert;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
+import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.joining;
 
 public class MeterAssertions extends AbstractAssert<MeterAssertions, MeterRegistry> {
 
     private static final String METER_SEPARATOR = ",\n  ";
-    private Stream<Meter> candidates;
+    private static final int PARALLEL_THRESHOLD = 10_000;
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final Comparator<Tag> TAG_ORDER = Comparator.comparing((Tag x) -> x.getKey()).thenComparing(x -> x.getValue());
+    private final Set<String> names = new HashSet<>();
+    private final List<Tag> tags = new ArrayList<>();
+    private final List<Class<? extends Meter>> types = new ArrayList<>();
     private final ExpectedMeter expected = new ExpectedMeter();
+    private final Map<Meter, MeterSnapshot> snapshots = new ConcurrentHashMap<>();
+    private int parallelThreshold;
+    private Duration timeout;
+    private MeterCheckpoint checkpoint;
 
-    private MeterAssertions(MeterRegistry actual) {
+    private MeterAssertions(MeterRegistry actual, int parallelThreshold, Duration timeout, MeterCheckpoint checkpoint) {
         super(actual, MeterAssertions.class);
-        this.candidates = actual.getMeters().stream();
+        this.parallelThreshold = parallelThreshold;
+        this.timeout = timeout;
+        this.checkpoint = checkpoint;
     }
 
     public static MeterAssertions assertThat(MeterRegistry actual) {
-        return new MeterAssertions(actual);
+        return new MeterAssertions(actual, PARALLEL_THRESHOLD, null, null);
+    }
+
+    public static MeterCheckpoint checkpoint(MeterRegistry registry) {
+        return MeterCheckpoint.of(registry);
+    }
+
+    public MeterAssertions since(MeterCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+        return this;
+    }
+
+    public MeterAssertions within(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    public MeterAssertions parallelAbove(int meters) {
+        this.parallelThreshold = meters;
+        return this;
     }
 
     public MeterAssertions withName(String name) {
-        this.candidates = this.candidates.filter(x -> x.getId().getName().equals(name));
+        this.names.add(name);
         this.expected.setName(name);
         return this;
     }
 
     public MeterAssertions withTag(String key, String value) {
-        this.candidates = this.candidates.filter(x -> x.getId().getTags().contains(Tag.of(key, value)));
+        this.tags.add(Tag.of(key, value));
         this.expected.addTag(key, value);
         return this;
     }
 
     public MeterAssertions ofType(Class<? extends Meter> type) {
-        this.candidates = this.candidates.filter(x -> type.isAssignableFrom(x.getClass()));
+        this.types.add(type);
         this.expected.setType(type.getSimpleName());
         return this;
     }
@@ -57,17 +96,15 @@ public class MeterAssertions extends AbstractAssert<MeterAssertions, MeterRegist
         this.expected.setType(Counter.class.getSimpleName());
         this.expected.setMeasurements(List.of(Statistic.COUNT.name() + "=" + count));
 
-        var meters = candidates
-                .filter(x -> StreamSupport.stream(x.measure().spliterator(), false).allMatch(y -> y.getStatistic() == Statistic.COUNT && y.getValue() == count))
-                .collect(Collectors.toList());
+        var meters = await(x -> x.hasOnly(Statistic.COUNT, count), x -> !x.isEmpty());
 
         if (meters.isEmpty()) {
             failWithMessage("\nExpecting meters:\n  %s\nto contain counter:\n  %s\nbut was not found",
-                    actual.getMeters().stream().map(x -> expected.format(x)).collect(joining(METER_SEPARATOR)),
+                    formatMeters(),
                     expected.format());
         }
 
-        return new MeterAssertions(actual);
+        return new MeterAssertions(actual, parallelThreshold, timeout, checkpoint);
     }
 
     public MeterAssertions containsGauge(double value) {
@@ -76,17 +113,15 @@ public class MeterAssertions extends AbstractAssert<MeterAssertions, MeterRegist
         this.expected.setType(Gauge.class.getSimpleName());
         this.expected.setMeasurements(List.of(Statistic.VALUE.name() + "=" + value));
 
-        var meters = candidates
-                .filter(x -> StreamSupport.stream(x.measure().spliterator(), false).allMatch(y -> y.getStatistic() == Statistic.VALUE && y.getValue() == value))
-                .collect(Collectors.toList());
+        var meters = await(x -> x.hasOnly(Statistic.VALUE, value), x -> !x.isEmpty());
 
         if (meters.isEmpty()) {
             failWithMessage("\nExpecting meters:\n  %s\nto contain gauge:\n  %s\nbut was not found",
-                    actual.getMeters().stream().map(x -> expected.format(x)).collect(joining(METER_SEPARATOR)),
+                    formatMeters(),
                     expected.format());
         }
 
-        return new MeterAssertions(actual);
+        return new MeterAssertions(actual, parallelThreshold, timeout, checkpoint);
     }
 
     public MeterAssertions containsTimer(double count, double totalTime, double max) {
@@ -95,19 +130,15 @@ public class MeterAssertions extends AbstractAssert<MeterAssertions, MeterRegist
         this.expected.setType(Timer.class.getSimpleName());
         this.expected.setMeasurements(List.of(Statistic.COUNT.name() + "=" + count, Statistic.TOTAL_TIME.name() + "=" + totalTime, Statistic.MAX + "=" + max));
 
-        var meters = candidates
-                .filter(x -> StreamSupport.stream(x.measure().spliterator(), false).anyMatch(y -> y.getStatistic() == Statistic.COUNT && y.getValue() == count))
-                .filter(x -> StreamSupport.stream(x.measure().spliterator(), false).anyMatch(y -> y.getStatistic() == Statistic.TOTAL_TIME && y.getValue() == totalTime))
-                .filter(x -> StreamSupport.stream(x.measure().spliterator(), false).anyMatch(y -> y.getStatistic() == Statistic.MAX && y.getValue() == max))
-                .collect(Collectors.toList());
+        var meters = await(x -> x.has(Statistic.COUNT, count) && x.has(Statistic.TOTAL_TIME, totalTime) && x.has(Statistic.MAX, max), x -> !x.isEmpty());
 
         if (meters.isEmpty()) {
             failWithMessage("\nExpecting meters:\n  %s\nto contain timer:\n  %s\nbut was not found",
-                    actual.getMeters().stream().map(x -> expected.format(x)).collect(joining(METER_SEPARATOR)),
+                    formatMeters(),
                     expected.format());
         }
 
-        return new MeterAssertions(actual);
+        return new MeterAssertions(actual, parallelThreshold, timeout, checkpoint);
     }
 
     public MeterAssertions containsMeasurement(double value) {
@@ -115,15 +146,15 @@ public class MeterAssertions extends AbstractAssert<MeterAssertions, MeterRegist
 
         this.expected.setMeasurements(List.of(String.valueOf(value)));
 
-        var meters = candidates.filter(x -> StreamSupport.stream(x.measure().spliterator(), false).anyMatch(y -> y.getValue() == value)).collect(Collectors.toList());
+        var meters = await(x -> x.hasValue(value), x -> !x.isEmpty());
 
         if (meters.isEmpty()) {
             failWithMessage("\nExpecting meters:\n  %s\nto contain:\n  %s\nbut was not found",
-                    actual.getMeters().stream().map(x -> expected.format(x)).collect(joining(METER_SEPARATOR)),
+                    formatMeters(),
                     expected.format());
         }
 
-        return new MeterAssertions(actual);
+        return new MeterAssertions(actual, parallelThreshold, timeout, checkpoint);
     }
 
     public MeterAssertions containsMeasurement() {
@@ -131,15 +162,15 @@ public class MeterAssertions extends AbstractAssert<MeterAssertions, MeterRegist
 
         this.expected.setMeasurements(List.of("*"));
 
-        var meters = candidates.filter(x -> StreamSupport.stream(x.measure().spliterator(), false).findAny().isPresent()).collect(Collectors.toList());
+        var meters = await(x -> !x.isEmpty(), x -> !x.isEmpty());
 
         if (meters.isEmpty()) {
             failWithMessage("\nExpecting meters:\n  %s\nto contain:\n  %s\nbut was not found",
-                    actual.getMeters().stream().map(x -> expected.format(x)).collect(joining(METER_SEPARATOR)),
+                    formatMeters(),
                     expected.format());
         }
 
-        return new MeterAssertions(actual);
+        return new MeterAssertions(actual, parallelThreshold, timeout, checkpoint);
     }
 
     public MeterAssertions containsMeasurements(double... values) {
@@ -147,19 +178,32 @@ public class MeterAssertions extends AbstractAssert<MeterAssertions, MeterRegist
 
         this.expected.setMeasurements(DoubleStream.of(values).boxed().map(x -> String.valueOf(x)).collect(Collectors.toList()));
 
-        var meters = candidates.filter(x -> StreamSupport.stream(x.measure().spliterator(), false)
-                        .map(y -> String.valueOf(y.getValue()))
-                        .collect(Collectors.toList())
-                        .equals(DoubleStream.of(values).boxed().map(y -> String.valueOf(y)).collect(Collectors.toList())))
-                .collect(Collectors.toList());
+        var meters = await(x -> x.hasValues(values), x -> !x.isEmpty());
 
         if (meters.isEmpty()) {
             failWithMessage("\nExpecting meters:\n  %s\nto contain:\n  %s\nbut was not found",
-                    actual.getMeters().stream().map(x -> expected.format(x)).collect(joining(METER_SEPARATOR)),
+                    formatMeters(),
                     expected.format());
         }
 
-        return new MeterAssertions(actual);
+        return new MeterAssertions(actual, parallelThreshold, timeout, checkpoint);
+    }
+
+    public MeterAssertions containsNewMeter() {
+        isNotNull();
+        if (checkpoint == null) {
+            throw new IllegalStateException("containsNewMeter requires a checkpoint, see since(MeterCheckpoint)");
+        }
+
+        var meters = await(x -> !checkpoint.contains(x.getId()), x -> !x.isEmpty());
+
+        if (meters.isEmpty()) {
+            failWithMessage("\nExpecting meters:\n  %s\nto contain new meter:\n  %s\nbut was not found",
+                    formatMeters(),
+                    expected.format());
+        }
+
+        return new MeterAssertions(actual, parallelThreshold, timeout, checkpoint);
     }
 
     public MeterAssertions containsNoMeasurements() {
@@ -167,16 +211,85 @@ public class MeterAssertions extends AbstractAssert<MeterAssertions, MeterRegist
 
         this.expected.setMeasurements(List.of("*"));
 
-        var meters = candidates.collect(Collectors.toList());
+        var meters = await(x -> true, x -> x.isEmpty());
 
         if (!meters.isEmpty()) {
             failWithMessage("\nExpecting meters:\n  %s\nto contain no measurement for:\n  %s\nbut found:\n  %s",
-                    actual.getMeters().stream().map(x -> expected.format(x)).collect(joining(METER_SEPARATOR)),
+                    formatMeters(),
                     expected.format(),
                     meters.stream().map(x -> expected.format(x)).collect(joining(METER_SEPARATOR)));
         }
 
-        return new MeterAssertions(actual);
+        return new MeterAssertions(actual, parallelThreshold, timeout, checkpoint);
+    }
+
+    /**
+     * Re-evaluates until the matches satisfy the assertion or the timeout elapses. Added meters wake the assertion at
+     * once, changed values are picked up with a backoff doubling from 1 to 50 ms.
+     */
+    private List<MeterSnapshot> await(Predicate<MeterSnapshot> predicate, Predicate<List<MeterSnapshot>> satisfied) {
+        if (timeout == null) {
+            return matching(predicate);
+        }
+        var index = MeterIndex.of(actual);
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var backoff = MIN_BACKOFF_NANOS;
+        var added = index.addedCount();
+        var meters = matching(predicate);
+        while (!satisfied.test(meters)) {
+            var remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            index.awaitAdded(added, Math.min(backoff, remaining));
+            backoff = index.addedCount() > added ? MIN_BACKOFF_NANOS : Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            added = index.addedCount();
+            snapshots.clear();
+            meters = matching(predicate);
+        }
+        return meters;
+    }
+
+    private List<MeterSnapshot> matching(Predicate<MeterSnapshot> predicate) {
+        var meters = names.isEmpty()
+                ? actual.getMeters()
+                : names.size() == 1 ? MeterIndex.of(actual).named(names.iterator().next()) : List.<Meter>of();
+        var expectedTags = tags.stream().sorted(TAG_ORDER).toArray(Tag[]::new);
+        var stream = meters.size() > parallelThreshold ? meters.parallelStream() : meters.stream();
+        return stream
+                .filter(x -> hasTags(x.getId().getTagsAsIterable(), expectedTags))
+                .filter(x -> types.stream().allMatch(y -> y.isInstance(x)))
+                .map(x -> snapshot(x))
+                .filter(predicate)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Merges the expected tags, sorted by key and value, with the tags of a meter, which Micrometer keeps sorted by key.
+     */
+    private static boolean hasTags(Iterable<Tag> actualTags, Tag[] expectedTags) {
+        if (expectedTags.length == 0) {
+            return true;
+        }
+        var actual = actualTags.iterator();
+        var current = actual.hasNext() ? actual.next() : null;
+        for (var expectedTag : expectedTags) {
+            while (current != null && current.getKey().compareTo(expectedTag.getKey()) < 0) {
+                current = actual.hasNext() ? actual.next() : null;
+            }
+            if (current == null || !current.getKey().equals(expectedTag.getKey()) || !current.getValue().equals(expectedTag.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private MeterSnapshot snapshot(Meter meter) {
+        return snapshots.computeIfAbsent(meter, x -> checkpoint == null ? MeterSnapshot.of(x) : checkpoint.delta(MeterSnapshot.of(x)));
+    }
+
+    private String formatMeters() {
+        return actual.getMeters().stream().map(x -> expected.format(snapshot(x))).collect(joining(METER_SEPARATOR));
     }
 
     public static class ExpectedMeter {
@@ -235,12 +348,16 @@ public class MeterAssertions extends AbstractAssert<MeterAssertions, MeterRegist
         }
 
         public String format(Meter meter) {
+            return format(MeterSnapshot.of(meter));
+        }
+
+        String format(MeterSnapshot meter) {
             return new ExpectedMeter(
                     name == null ? null : meter.getId().getName(),
-                    type == null ? null : meter.getClass().getSimpleName(),
+                    type == null ? null : meter.getType().getSimpleName(),
                     tags == null ? null : meter.getId().getTags(),
-                    measurements == null ? null : StreamSupport.stream(meter.measure().spliterator(), false)
-                            .map(x -> x.getStatistic().name() + "=" + x.getValue())
+                    measurements == null ? null : IntStream.range(0, meter.size())
+                            .mapToObj(i -> meter.statistic(i).name() + "=" + meter.value(i))
                             .collect(Collectors.toList())).format();
         }
     }
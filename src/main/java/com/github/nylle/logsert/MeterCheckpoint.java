@@ -0,0 +1,95 @@
+package com.github.nylle.logsert;
+
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Statistic;
+
+import java.util.Arrays;
+
+/**
+ * The counts and totals of all meters of a registry at one point in time, kept in primitive arrays. Meter ids are
+ * looked up through their hash codes, which are sorted together with the position of the meter in a single long array.
+ */
+public final class MeterCheckpoint {
+
+    private final Meter.Id[] ids;
+    private final double[] counts;
+    private final double[] totals;
+    private final long[] keys;
+
+    private MeterCheckpoint(Meter.Id[] ids, double[] counts, double[] totals, long[] keys) {
+        this.ids = ids;
+        this.counts = counts;
+        this.totals = totals;
+        this.keys = keys;
+    }
+
+    public static MeterCheckpoint of(MeterRegistry registry) {
+        var meters = registry.getMeters();
+        var ids = new Meter.Id[meters.size()];
+        var counts = new double[meters.size()];
+        var totals = new double[meters.size()];
+        var keys = new long[meters.size()];
+        for (int i = 0; i < ids.length; i++) {
+            var meter = meters.get(i);
+            ids[i] = meter.getId();
+            for (Measurement measurement : meter.measure()) {
+                if (measurement.getStatistic() == Statistic.COUNT) {
+                    counts[i] = measurement.getValue();
+                } else if (isTotal(measurement.getStatistic())) {
+                    totals[i] = measurement.getValue();
+                }
+            }
+            keys[i] = (long) ids[i].hashCode() << 32 | i;
+        }
+        Arrays.sort(keys);
+        return new MeterCheckpoint(ids, counts, totals, keys);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    boolean contains(Meter.Id id) {
+        return find(id) >= 0;
+    }
+
+    /**
+     * Subtracts the count and total of the meter at this checkpoint. Meters added since count from zero.
+     */
+    MeterSnapshot delta(MeterSnapshot meter) {
+        var position = find(meter.getId());
+        if (position < 0) {
+            return meter;
+        }
+        var statistics = new Statistic[meter.size()];
+        var values = new double[meter.size()];
+        for (int i = 0; i < values.length; i++) {
+            statistics[i] = meter.statistic(i);
+            values[i] = meter.value(i);
+            if (statistics[i] == Statistic.COUNT) {
+                values[i] -= counts[position];
+            } else if (isTotal(statistics[i])) {
+                values[i] -= totals[position];
+            }
+        }
+        return new MeterSnapshot(meter.getId(), meter.getType(), statistics, values);
+    }
+
+    private int find(Meter.Id id) {
+        var hash = id.hashCode();
+        var index = Arrays.binarySearch(keys, (long) hash << 32);
+        for (index = index < 0 ? -index - 1 : index; index < keys.length && (int) (keys[index] >> 32) == hash; index++) {
+            var position = (int) keys[index];
+            if (ids[position].equals(id)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isTotal(Statistic statistic) {
+        return statistic == Statistic.TOTAL || statistic == Statistic.TOTAL_TIME;
+    }
+}
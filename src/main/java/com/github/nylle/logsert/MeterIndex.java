@@ -0,0 +1,82 @@
+package com.github.nylle.logsert;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters of a registry by name. The index is built once per registry and kept up to date by registry listeners, so
+ * assertions on a name do not scan all meters of the registry. Waiting assertions are woken when a meter is added.
+ * Micrometer cannot remove registry listeners, so they stay registered for as long as the registry lives.
+ */
+class MeterIndex {
+
+    private static final Map<MeterRegistry, MeterIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<String, Map<Meter.Id, Meter>> byName = new ConcurrentHashMap<>();
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Object arrival = new Object();
+
+    private MeterIndex(MeterRegistry registry) {
+        registry.config().onMeterAdded(x -> add(x));
+        registry.config().onMeterRemoved(x -> remove(x));
+        registry.getMeters().forEach(x -> add(x));
+    }
+
+    static MeterIndex of(MeterRegistry registry) {
+        return INDEXES.computeIfAbsent(registry, x -> new MeterIndex(x));
+    }
+
+    List<Meter> named(String name) {
+        var meters = byName.get(name);
+        return meters == null ? List.of() : List.copyOf(meters.values());
+    }
+
+    long addedCount() {
+        return added.get();
+    }
+
+    void awaitAdded(long addedCount, long timeoutNanos) {
+        var deadline = System.nanoTime() + timeoutNanos;
+        waiting.incrementAndGet();
+        try {
+            synchronized (arrival) {
+                var remaining = timeoutNanos;
+                while (added.get() <= addedCount && remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(arrival, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private void add(Meter meter) {
+        byName.computeIfAbsent(meter.getId().getName(), x -> new ConcurrentHashMap<>()).put(meter.getId(), meter);
+        added.incrementAndGet();
+        if (waiting.get() > 0) {
+            synchronized (arrival) {
+                arrival.notifyAll();
+            }
+        }
+    }
+
+    private void remove(Meter meter) {
+        var meters = byName.get(meter.getId().getName());
+        if (meters != null) {
+            meters.remove(meter.getId(), meter);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.nylle.logsert;
+
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Statistic;
+
+import java.util.Arrays;
+
+/**
+ * The id, type and measurements of a meter taken in a single call to {@link Meter#measure()}, so that every check and
+ * the failure message see the same consistent values.
+ */
+class MeterSnapshot {
+
+    private final Meter.Id id;
+    private final Class<?> type;
+    private final Statistic[] statistics;
+    private final double[] values;
+
+    MeterSnapshot(Meter.Id id, Class<?> type, Statistic[] statistics, double[] values) {
+        this.id = id;
+        this.type = type;
+        this.statistics = statistics;
+        this.values = values;
+    }
+
+    static MeterSnapshot of(Meter meter) {
+        var statistics = new Statistic[4];
+        var values = new double[4];
+        var size = 0;
+        for (Measurement measurement : meter.measure()) {
+            if (size == values.length) {
+                statistics = Arrays.copyOf(statistics, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            statistics[size] = measurement.getStatistic();
+            values[size++] = measurement.getValue();
+        }
+        return new MeterSnapshot(meter.getId(), meter.getClass(), Arrays.copyOf(statistics, size), Arrays.copyOf(values, size));
+    }
+
+    Meter.Id getId() {
+        return id;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    int size() {
+        return values.length;
+    }
+
+    Statistic statistic(int index) {
+        return statistics[index];
+    }
+
+    double value(int index) {
+        return values[index];
+    }
+
+    boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    boolean hasOnly(Statistic statistic, double value) {
+        for (int i = 0; i < values.length; i++) {
+            if (statistics[i] != statistic || values[i] != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean has(Statistic statistic, double value) {
+        for (int i = 0; i < values.length; i++) {
+            if (statistics[i] == statistic && values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean hasValue(double value) {
+        for (var actual : values) {
+            if (actual == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean hasValues(double[] expected) {
+        return Arrays.equals(values, expected);
+    }
+}
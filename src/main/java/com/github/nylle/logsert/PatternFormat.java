@@ -0,0 +1,250 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reads events written with a logback pattern layout. The pattern is compiled to a regular expression for the first
+ * line of each event; following lines that do not match continue the message or carry the stack trace.
+ */
+class PatternFormat implements LogFormat {
+
+    private static final Pattern THROWABLE_HEADER = Pattern.compile("(?:Caused by: )?([\\w$]+(?:\\.[\\w$]+)+)(?:: ?(.*))?");
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss,SSS";
+
+    private final Pattern regex;
+    private final List<Field> fields = new ArrayList<>();
+    private DateTimeFormatter dateFormat;
+
+    PatternFormat(String pattern) {
+        this.regex = Pattern.compile(compile(pattern));
+    }
+
+    @Override
+    public boolean isRecordStart(String line) {
+        return regex.matcher(line).matches();
+    }
+
+    @Override
+    public ILoggingEvent parse(String line, List<String> continuationLines) {
+        var matcher = regex.matcher(line);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("line does not match pattern " + regex + ": " + line);
+        }
+
+        Level level = null;
+        String loggerName = null;
+        String threadName = null;
+        String message = null;
+        long timeStamp = 0;
+        var mdc = new HashMap<String, String>();
+        for (int i = 0; i < fields.size(); i++) {
+            var value = matcher.group(i + 1);
+            var field = fields.get(i);
+            switch (field.type) {
+                case DATE:
+                    timeStamp = parseDate(value);
+                    break;
+                case LEVEL:
+                    level = Level.toLevel(value, null);
+                    break;
+                case LOGGER:
+                    loggerName = value;
+                    break;
+                case THREAD:
+                    threadName = value;
+                    break;
+                case MESSAGE:
+                    message = value;
+                    break;
+                case MDC:
+                    putMdc(mdc, field.option, value);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        var fullMessage = message == null ? null : new StringBuilder(message);
+        DetachedEvent.ThrowableSummary throwable = null;
+        for (var continuation : continuationLines) {
+            if (throwable != null) {
+                break;
+            }
+            throwable = throwableHeader(continuation);
+            if (throwable == null && fullMessage != null) {
+                fullMessage.append('\n').append(continuation);
+            }
+        }
+
+        return new DetachedEvent(level, loggerName, threadName, fullMessage == null ? null : fullMessage.toString(), timeStamp, mdc, throwable);
+    }
+
+    static DetachedEvent.ThrowableSummary throwableHeader(String line) {
+        var matcher = THROWABLE_HEADER.matcher(line);
+        return matcher.matches() ? new DetachedEvent.ThrowableSummary(matcher.group(1), matcher.group(2)) : null;
+    }
+
+    private long parseDate(String value) {
+        if (dateFormat == null) {
+            return 0;
+        }
+        try {
+            return LocalDateTime.parse(value, dateFormat).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeException ex) {
+            return 0;
+        }
+    }
+
+    private static void putMdc(Map<String, String> mdc, String key, String value) {
+        if (key != null) {
+            mdc.put(key, value);
+            return;
+        }
+        for (var entry : value.split(", ")) {
+            var separator = entry.indexOf('=');
+            if (separator > 0) {
+                mdc.put(entry.substring(0, separator), entry.substring(separator + 1));
+            }
+        }
+    }
+
+    private String compile(String pattern) {
+        var regex = new StringBuilder();
+        var literal = new StringBuilder();
+        var i = 0;
+        while (i < pattern.length()) {
+            var next = pattern.charAt(i);
+            if (next == '\\' && i + 1 < pattern.length()) {
+                literal.append(pattern.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (next != '%' || i + 1 >= pattern.length()) {
+                literal.append(next);
+                i++;
+                continue;
+            }
+            if (pattern.charAt(i + 1) == '%') {
+                literal.append('%');
+                i += 2;
+                continue;
+            }
+
+            var start = ++i;
+            while (i < pattern.length() && "-.0123456789".indexOf(pattern.charAt(i)) >= 0) {
+                i++;
+            }
+            var padded = i > start;
+            var wordStart = i;
+            while (i < pattern.length() && Character.isLetter(pattern.charAt(i))) {
+                i++;
+            }
+            var word = pattern.substring(wordStart, i);
+            String option = null;
+            if (i < pattern.length() && pattern.charAt(i) == '{') {
+                var end = pattern.indexOf('}', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("unterminated option in pattern: " + pattern);
+                }
+                option = pattern.substring(i + 1, end);
+                i = end + 1;
+            }
+            if (i < pattern.length() && pattern.charAt(i) == '(') {
+                throw new IllegalArgumentException("composite conversion %" + word + "(...) is not supported in pattern: " + pattern);
+            }
+
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            var group = group(word, option);
+            if (!group.isEmpty()) {
+                regex.append(padded ? " *" + group + " *" : group);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+
+    private String group(String word, String option) {
+        switch (word) {
+            case "d":
+            case "date":
+                dateFormat = dateFormat(option);
+                return capture(FieldType.DATE, option, "(.+?)");
+            case "p":
+            case "le":
+            case "level":
+                return capture(FieldType.LEVEL, option, "(TRACE|DEBUG|INFO|WARN|ERROR)");
+            case "c":
+            case "lo":
+            case "logger":
+                return capture(FieldType.LOGGER, option, "(\\S*?)");
+            case "t":
+            case "thread":
+                return capture(FieldType.THREAD, option, "(.*?)");
+            case "m":
+            case "msg":
+            case "message":
+                return capture(FieldType.MESSAGE, option, "(.*?)");
+            case "X":
+            case "mdc":
+                return capture(FieldType.MDC, option == null || option.isEmpty() ? null : option.split(":-")[0], "(.*?)");
+            case "n":
+            case "ex":
+            case "exception":
+            case "throwable":
+            case "xEx":
+            case "xException":
+            case "xThrowable":
+            case "rEx":
+            case "rootException":
+            case "nopex":
+            case "nopexception":
+                return "";
+            default:
+                return "(?:.*?)";
+        }
+    }
+
+    private String capture(FieldType type, String option, String group) {
+        fields.add(new Field(type, option));
+        return group;
+    }
+
+    private static DateTimeFormatter dateFormat(String option) {
+        var format = option == null || option.isEmpty() || option.equals("ISO8601") ? DEFAULT_DATE_FORMAT : option;
+        try {
+            return DateTimeFormatter.ofPattern(format);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private enum FieldType {
+        DATE, LEVEL, LOGGER, THREAD, MESSAGE, MDC
+    }
+
+    private static class Field {
+        private final FieldType type;
+        private final String option;
+
+        private Field(FieldType type, String option) {
+            this.type = type;
+            this.option = option;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.nylle.logsert;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records loggers with a single {@link LogRecorder} that stays attached for the whole test class, or for the whole
+ * test run with {@link Scope#JVM}. Each test only sees the events logged since it started and can receive the recorder
+ * as a parameter.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@ExtendWith(RecordLogsExtension.class)
+public @interface RecordLogs {
+
+    String[] value() default org.slf4j.Logger.ROOT_LOGGER_NAME;
+
+    Scope scope() default Scope.CLASS;
+
+    enum Scope {
+        CLASS,
+        JVM
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.nylle.logsert;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.Arrays;
+
+class RecordLogsExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(RecordLogsExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext extensionContext) {
+        recorder(extensionContext);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext extensionContext) {
+        recorder(extensionContext).beforeEach(extensionContext);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext extensionContext) {
+        recorder(extensionContext).afterEach(extensionContext);
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == LogRecorder.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return recorder(extensionContext);
+    }
+
+    private static LogRecorder recorder(ExtensionContext extensionContext) {
+        var annotation = findAnnotation(extensionContext.getRequiredTestClass());
+        var store = annotation.scope() == RecordLogs.Scope.JVM
+                ? extensionContext.getRoot().getStore(NAMESPACE)
+                : extensionContext.getStore(NAMESPACE);
+
+        return store.getOrComputeIfAbsent(annotation.scope() + ":" + String.join(",", annotation.value()), x -> new Attachment(annotation.value(), extensionContext), Attachment.class).recorder;
+    }
+
+    private static RecordLogs findAnnotation(Class<?> testClass) {
+        for (var type = testClass; type != null; type = type.getEnclosingClass()) {
+            var annotation = AnnotationSupport.findAnnotation(type, RecordLogs.class);
+            if (annotation.isPresent()) {
+                return annotation.get();
+            }
+        }
+        throw new IllegalStateException("@RecordLogs not found on " + testClass.getName());
+    }
+
+    private static class Attachment implements ExtensionContext.Store.CloseableResource {
+        private final LogRecorder recorder;
+        private final ExtensionContext extensionContext;
+
+        private Attachment(String[] names, ExtensionContext extensionContext) {
+            this.recorder = new LogRecorder(names[0], Arrays.copyOfRange(names, 1, names.length));
+            this.extensionContext = extensionContext;
+            this.recorder.beforeAll(extensionContext);
+        }
+
+        @Override
+        public void close() {
+            recorder.afterAll(extensionContext);
+        }
+    }
+}
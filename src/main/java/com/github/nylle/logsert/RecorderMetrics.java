@@ -0,0 +1,75 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes how many events a recorder appended and retained, their approximate heap size and how long appending took.
+ */
+class RecorderMetrics {
+
+    private final Counter appended;
+    private final Timer appendLatency;
+    private final LongAdder estimatedBytes = new LongAdder();
+
+    RecorderMetrics(MeterRegistry registry, String recorder, RecordingAppender appender) {
+        var tags = Tags.of("recorder", recorder);
+        this.appended = Counter.builder("logsert.recorder.appended")
+                .description("events appended to the recorder")
+                .tags(tags)
+                .register(registry);
+        this.appendLatency = Timer.builder("logsert.recorder.append")
+                .description("time to store an event")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("logsert.recorder.retained", appender, x -> x.retained())
+                .description("events retained for the running tests")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("logsert.recorder.size", appender, x -> approximateBytes(x.retained()))
+                .description("approximate heap size of the retained events")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry);
+    }
+
+    void appended(ILoggingEvent event, long nanos) {
+        appended.increment();
+        appendLatency.record(nanos, TimeUnit.NANOSECONDS);
+        estimatedBytes.add(estimate(event));
+    }
+
+    private double approximateBytes(long retained) {
+        var count = appended.count();
+        return count == 0 ? 0 : estimatedBytes.sum() / count * retained;
+    }
+
+    private static long estimate(ILoggingEvent event) {
+        var bytes = 96L;
+        if (event.getMessage() != null) {
+            bytes += 40 + 2L * event.getMessage().length();
+        }
+        if (event.getArgumentArray() != null) {
+            bytes += 16 + 24L * event.getArgumentArray().length;
+        }
+        var mdc = event.getMDCPropertyMap();
+        if (mdc != null && !mdc.isEmpty()) {
+            bytes += 48;
+            for (var entry : mdc.entrySet()) {
+                bytes += 32 + 2L * (String.valueOf(entry.getKey()).length() + String.valueOf(entry.getValue()).length());
+            }
+        }
+        if (event.getThrowableProxy() != null) {
+            bytes += 512;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,273 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class RecordingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final InheritableThreadLocal<Owner> OWNER = new InheritableThreadLocal<>();
+
+    private final List<Rule> forbidden = new CopyOnWriteArrayList<>();
+    private volatile boolean abortOnViolation = false;
+    private volatile Level threshold = Level.ALL;
+    private final ThreadLocal<ILoggingEvent> lastAppended = new ThreadLocal<>();
+    private volatile boolean deduplicating = false;
+    private volatile boolean droppingUnclaimed = false;
+    private final Object arrival = new Object();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Map<Owner, Recording> claimed = new ConcurrentHashMap<>();
+    private volatile RecorderMetrics metrics;
+    private Supplier<EventStore> storeFactory = () -> new EventLog();
+    private volatile Recording unclaimed = new Recording(storeFactory.get());
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (event.getLevel() != null && !event.getLevel().isGreaterOrEqual(threshold)) {
+            return;
+        }
+        if (deduplicating) {
+            if (lastAppended.get() == event) {
+                return;
+            }
+            lastAppended.set(event);
+        }
+        var currentOwner = OWNER.get();
+        if (currentOwner != null && currentOwner.active) {
+            var recording = claimed.get(currentOwner);
+            if (recording == null) {
+                return;
+            }
+            record(recording, event);
+        } else if (claimed.isEmpty()) {
+            if (!droppingUnclaimed) {
+                record(unclaimed, event);
+            }
+        } else {
+            claimed.values().forEach(x -> record(x, event));
+        }
+        if (waiting.get() > 0) {
+            synchronized (arrival) {
+                arrival.notifyAll();
+            }
+        }
+    }
+
+    private void record(Recording recording, ILoggingEvent event) {
+        for (var rule : forbidden) {
+            if (rule.matcher.test(event)) {
+                violate(recording, rule, event);
+            }
+        }
+        var currentMetrics = metrics;
+        if (currentMetrics == null) {
+            recording.store.append(event);
+        } else {
+            var start = System.nanoTime();
+            recording.store.append(event);
+            currentMetrics.appended(event, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Starts a recording for a test on the current thread. Tests sharing the appender each get their own store and
+     * violations, which receive the events of their threads and of threads that no running test owns.
+     */
+    public void claim(Object test) {
+        var currentOwner = OWNER.get();
+        if (currentOwner == null || !currentOwner.active || currentOwner.test != test) {
+            currentOwner = new Owner(test);
+            OWNER.set(currentOwner);
+        }
+        claimed.computeIfAbsent(currentOwner, x -> new Recording(storeFactory.get()));
+    }
+
+    /**
+     * Ends the recording of a test and returns the violations that were recorded for it.
+     */
+    public List<AssertionError> release(Object test) {
+        var releasedOwner = OWNER.get();
+        if (releasedOwner == null || releasedOwner.test != test || !claimed.containsKey(releasedOwner)) {
+            releasedOwner = claimed.keySet().stream().filter(x -> x.test == test).findFirst().orElse(null);
+        }
+        if (releasedOwner == null) {
+            return List.of();
+        }
+        releasedOwner.active = false;
+        if (OWNER.get() == releasedOwner) {
+            OWNER.remove();
+        }
+        var recording = claimed.remove(releasedOwner);
+        if (recording == null) {
+            return List.of();
+        }
+        recording.store.close();
+        return List.copyOf(recording.violations);
+    }
+
+    static Runnable propagate(Runnable task) {
+        var taskOwner = OWNER.get();
+        return () -> {
+            var previousOwner = OWNER.get();
+            OWNER.set(taskOwner);
+            try {
+                task.run();
+            } finally {
+                OWNER.set(previousOwner);
+            }
+        };
+    }
+
+    /**
+     * The store of the test the current thread logs for. Threads that no claiming test owns see the only claimed
+     * recording, or the recording of unclaimed events when none or several tests are running.
+     */
+    public EventStore getStore() {
+        return current().store;
+    }
+
+    /**
+     * Events retained by the unclaimed recording and the recordings of all running tests, without copying them.
+     */
+    public long retained() {
+        var retained = unclaimed.store.retained();
+        for (var recording : claimed.values()) {
+            retained += recording.store.retained();
+        }
+        return retained;
+    }
+
+    private Recording current() {
+        var currentOwner = OWNER.get();
+        var recording = currentOwner == null ? null : claimed.get(currentOwner);
+        if (recording != null) {
+            return recording;
+        }
+        var recordings = claimed.values().iterator();
+        if (recordings.hasNext()) {
+            var only = recordings.next();
+            if (!recordings.hasNext()) {
+                return only;
+            }
+        }
+        return unclaimed;
+    }
+
+    public void setStoreFactory(Supplier<EventStore> storeFactory) {
+        this.storeFactory = storeFactory;
+        clear();
+    }
+
+    public void clear() {
+        var cleared = unclaimed;
+        unclaimed = new Recording(storeFactory.get());
+        cleared.store.close();
+    }
+
+    public void forbid(ExpectedLoggingEvent expected) {
+        forbidden.add(new Rule(expected));
+    }
+
+    public void setAbortOnViolation(boolean abortOnViolation) {
+        this.abortOnViolation = abortOnViolation;
+    }
+
+    public void setMetrics(RecorderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setThreshold(Level threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Records an event only once when the appender is attached to a logger and one of its ancestors, which both pass
+     * it to the appender in turn on the logging thread.
+     */
+    public void setDeduplicating(boolean deduplicating) {
+        this.deduplicating = deduplicating;
+    }
+
+    /**
+     * Drops events that arrive while no test has claimed the appender, which would otherwise pile up between the tests
+     * of a recorder that stays attached for a whole class or test run.
+     */
+    public void setDroppingUnclaimed(boolean droppingUnclaimed) {
+        this.droppingUnclaimed = droppingUnclaimed;
+    }
+
+    public List<AssertionError> getViolations() {
+        return List.copyOf(current().violations);
+    }
+
+    private void violate(Recording recording, Rule rule, ILoggingEvent event) {
+        var violation = new AssertionError(String.format("\nExpecting no log matching:\n  %s\nbut thread '%s' logged:\n  %s",
+                List.of(rule.expected.format()),
+                Thread.currentThread().getName(),
+                List.of(rule.expected.format(event))));
+        recording.violations.add(violation);
+        if (abortOnViolation) {
+            throw violation;
+        }
+    }
+
+    public void awaitAppended(long appendedCount, long timeoutNanos) {
+        var deadline = System.nanoTime() + timeoutNanos;
+        waiting.incrementAndGet();
+        try {
+            synchronized (arrival) {
+                var remaining = timeoutNanos;
+                while (getStore().appendedCount() <= appendedCount && remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(arrival, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * The test a thread logs for. Threads inherit it from the thread that created them, and pooled threads that outlive
+     * the test are treated as unowned once it is released.
+     */
+    private static class Owner {
+        private final Object test;
+        private volatile boolean active = true;
+
+        private Owner(Object test) {
+            this.test = test;
+        }
+    }
+
+    private static class Recording {
+        private final EventStore store;
+        private final Queue<AssertionError> violations = new ConcurrentLinkedQueue<>();
+
+        private Recording(EventStore store) {
+            this.store = store;
+        }
+    }
+
+    private static class Rule {
+        private final ExpectedLoggingEvent expected;
+        private final EventMatcher matcher;
+
+        private Rule(ExpectedLoggingEvent expected) {
+            this.expected = expected;
+            this.matcher = expected.compile();
+        }
+    }
+}
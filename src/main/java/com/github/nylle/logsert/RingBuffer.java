@@ -0,0 +1,111 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Keeps the most recent events up to a fixed capacity. Every event that is overwritten, or that loses the race for
+ * its slot to a newer one, is counted exactly once as evicted.
+ */
+class RingBuffer implements EventStore {
+
+    private final int capacity;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReferenceArray<Entry> slots;
+    private final LongAdder evicted = new LongAdder();
+    private final Map<Level, LongAdder> evictedByLevel = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> evictedByLogger = new ConcurrentHashMap<>();
+
+    public RingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void append(ILoggingEvent event) {
+        var entry = new Entry(sequence.getAndIncrement(), event);
+        var slot = (int) (entry.sequence % capacity);
+        var current = slots.get(slot);
+        while (true) {
+            if (current != null && current.sequence > entry.sequence) {
+                evict(entry);
+                return;
+            }
+            if (slots.compareAndSet(slot, current, entry)) {
+                if (current != null) {
+                    evict(current);
+                }
+                return;
+            }
+            current = slots.get(slot);
+        }
+    }
+
+    @Override
+    public List<ILoggingEvent> snapshot() {
+        var end = sequence.get();
+        var start = Math.max(0, end - capacity);
+        var result = new ArrayList<ILoggingEvent>((int) Math.max(0, end - start));
+        for (var next = start; next < end; next++) {
+            var entry = slots.get((int) (next % capacity));
+            if (entry != null && entry.sequence == next) {
+                result.add(entry.event);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long appendedCount() {
+        return sequence.get();
+    }
+
+    @Override
+    public long retained() {
+        return Math.min(sequence.get(), capacity);
+    }
+
+    @Override
+    public long evictedCount() {
+        return evicted.sum();
+    }
+
+    @Override
+    public Map<Level, Long> evictedCountByLevel() {
+        return evictedByLevel.entrySet().stream().collect(toMap(x -> x.getKey(), x -> x.getValue().sum()));
+    }
+
+    @Override
+    public Map<String, Long> evictedCountByLogger() {
+        return evictedByLogger.entrySet().stream().collect(toMap(x -> x.getKey(), x -> x.getValue().sum()));
+    }
+
+    private void evict(Entry entry) {
+        evicted.increment();
+        evictedByLevel.computeIfAbsent(entry.event.getLevel(), x -> new LongAdder()).increment();
+        evictedByLogger.computeIfAbsent(entry.event.getLoggerName(), x -> new LongAdder()).increment();
+    }
+
+    private static class Entry {
+        private final long sequence;
+        private final ILoggingEvent event;
+
+        private Entry(long sequence, ILoggingEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
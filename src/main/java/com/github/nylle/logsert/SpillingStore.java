@@ -0,0 +1,362 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Keeps the most recent events on the heap and spills older ones to a memory-mapped temporary file. Spilled events are
+ * encoded with their formatted message, interned logger and thread names, MDC and throwable class and message, and are
+ * decoded again while a snapshot is streamed. The file is created on the first spill and deleted when the store is
+ * closed. Appending is synchronized and spilling encodes and writes the oldest event on the logging thread, so
+ * recording is slower than with the lock-free in-memory stores once events spill.
+ */
+class SpillingStore implements EventStore {
+
+    private static final int REGION_SIZE = 64 << 20;
+    private static final int CHECKPOINT_INTERVAL = 1024;
+
+    private final int inMemory;
+    private final int regionSize;
+    private Path file;
+    private FileChannel channel;
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+    private final ArrayDeque<ILoggingEvent> recent = new ArrayDeque<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private long[] checkpoints = new long[16];
+    private long written;
+    private int spilled;
+    private int appended;
+
+    SpillingStore(int inMemory) {
+        this(inMemory, REGION_SIZE);
+    }
+
+    SpillingStore(int inMemory, int regionSize) {
+        this.inMemory = inMemory;
+        this.regionSize = regionSize;
+        names.add(null);
+    }
+
+    @Override
+    public synchronized void append(ILoggingEvent event) {
+        recent.addLast(event);
+        appended++;
+        if (recent.size() > inMemory) {
+            spill(recent.removeFirst());
+        }
+    }
+
+    @Override
+    public synchronized List<ILoggingEvent> snapshot() {
+        return new Snapshot(
+                List.copyOf(regions),
+                regionSize,
+                Arrays.copyOf(checkpoints, checkpoints.length),
+                names.toArray(String[]::new),
+                spilled,
+                new ArrayList<>(recent),
+                0,
+                appended);
+    }
+
+    @Override
+    public synchronized long appendedCount() {
+        return appended;
+    }
+
+    @Override
+    public synchronized long retained() {
+        return appended;
+    }
+
+    public synchronized int spilledCount() {
+        return spilled;
+    }
+
+    synchronized Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void spill(ILoggingEvent event) {
+        if (spilled % CHECKPOINT_INTERVAL == 0) {
+            var checkpoint = spilled / CHECKPOINT_INTERVAL;
+            if (checkpoint == checkpoints.length) {
+                checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+            }
+            checkpoints[checkpoint] = written;
+        }
+        var record = encode(event);
+        write(record);
+        spilled++;
+    }
+
+    private byte[] encode(ILoggingEvent event) {
+        try {
+            var bytes = new ByteArrayOutputStream(128);
+            var out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeByte(ColumnarStore.encode(event.getLevel()));
+            out.writeLong(event.getTimeStamp());
+            out.writeInt(intern(event.getLoggerName()));
+            out.writeInt(intern(event.getThreadName()));
+            writeString(out, event.getFormattedMessage());
+            var mdc = event.getMDCPropertyMap() == null ? Map.<String, String>of() : event.getMDCPropertyMap();
+            out.writeInt(mdc.size());
+            for (var entry : mdc.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+            var throwableProxy = event.getThrowableProxy();
+            out.writeBoolean(throwableProxy != null);
+            if (throwableProxy != null) {
+                writeString(out, throwableProxy.getClassName());
+                writeString(out, throwableProxy.getMessage());
+            }
+            var record = bytes.toByteArray();
+            var length = record.length - Integer.BYTES;
+            record[0] = (byte) (length >>> 24);
+            record[1] = (byte) (length >>> 16);
+            record[2] = (byte) (length >>> 8);
+            record[3] = (byte) length;
+            return record;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private int intern(String name) {
+        if (name == null) {
+            return 0;
+        }
+        return nameIds.computeIfAbsent(name, x -> {
+            names.add(x);
+            return names.size() - 1;
+        });
+    }
+
+    private void write(byte[] record) {
+        var offset = 0;
+        while (offset < record.length) {
+            var region = region((int) (written / regionSize));
+            var position = (int) (written % regionSize);
+            var length = Math.min(record.length - offset, regionSize - position);
+            region.duplicate().position(position).put(record, offset, length);
+            offset += length;
+            written += length;
+        }
+    }
+
+    private MappedByteBuffer region(int index) {
+        while (regions.size() <= index) {
+            try {
+                if (channel == null) {
+                    file = Files.createTempFile("logsert-", ".spill");
+                    channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+                }
+                regions.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) regions.size() * regionSize, regionSize));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return regions.get(index);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        var length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class Snapshot extends AbstractList<ILoggingEvent> {
+
+        private final List<MappedByteBuffer> regions;
+        private final int regionSize;
+        private final long[] checkpoints;
+        private final String[] names;
+        private final int spilled;
+        private final List<ILoggingEvent> recent;
+        private final int from;
+        private final int to;
+
+        private Snapshot(List<MappedByteBuffer> regions, int regionSize, long[] checkpoints, String[] names, int spilled, List<ILoggingEvent> recent, int from, int to) {
+            this.regions = regions;
+            this.regionSize = regionSize;
+            this.checkpoints = checkpoints;
+            this.names = names;
+            this.spilled = spilled;
+            this.recent = recent;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public ILoggingEvent get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            var position = from + index;
+            if (position >= spilled) {
+                return recent.get(position - spilled);
+            }
+            var reader = new Reader(position);
+            return reader.next();
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        /**
+         * Views a range without copying, so that iterating it streams from the nearest checkpoint once instead of
+         * replaying records for every index.
+         */
+        @Override
+        public List<ILoggingEvent> subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size());
+            }
+            return new Snapshot(regions, regionSize, checkpoints, names, spilled, recent, from + fromIndex, from + toIndex);
+        }
+
+        @Override
+        public Iterator<ILoggingEvent> iterator() {
+            return new Iterator<>() {
+                private int position = from;
+                private Reader reader;
+
+                @Override
+                public boolean hasNext() {
+                    return position < to;
+                }
+
+                @Override
+                public ILoggingEvent next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    if (position >= spilled) {
+                        return recent.get(position++ - spilled);
+                    }
+                    if (reader == null) {
+                        reader = new Reader(position);
+                    }
+                    position++;
+                    return reader.next();
+                }
+            };
+        }
+
+        /**
+         * Streams spilled records forward from the checkpoint before a position.
+         */
+        private class Reader {
+            private long offset;
+
+            private Reader(int position) {
+                offset = checkpoints[position / CHECKPOINT_INTERVAL];
+                for (var skipped = position - position % CHECKPOINT_INTERVAL; skipped < position; skipped++) {
+                    offset += Integer.BYTES + readLength();
+                }
+            }
+
+            private ILoggingEvent next() {
+                var length = readLength();
+                var record = read(offset + Integer.BYTES, length);
+                offset += Integer.BYTES + length;
+                return decode(record);
+            }
+
+            private int readLength() {
+                var bytes = read(offset, Integer.BYTES);
+                return (bytes[0] & 0xff) << 24 | (bytes[1] & 0xff) << 16 | (bytes[2] & 0xff) << 8 | (bytes[3] & 0xff);
+            }
+
+            private byte[] read(long position, int length) {
+                var bytes = new byte[length];
+                var offset = 0;
+                while (offset < length) {
+                    var region = regions.get((int) (position / regionSize));
+                    var start = (int) (position % regionSize);
+                    var chunk = Math.min(length - offset, regionSize - start);
+                    region.duplicate().position(start).get(bytes, offset, chunk);
+                    offset += chunk;
+                    position += chunk;
+                }
+                return bytes;
+            }
+
+            private ILoggingEvent decode(byte[] record) {
+                try (var in = new DataInputStream(new ByteArrayInputStream(record))) {
+                    var level = ColumnarStore.decode(in.readByte());
+                    var timeStamp = in.readLong();
+                    var loggerName = names[in.readInt()];
+                    var threadName = names[in.readInt()];
+                    var message = readString(in);
+                    var mdcSize = in.readInt();
+                    var mdc = new HashMap<String, String>(mdcSize * 2);
+                    for (int i = 0; i < mdcSize; i++) {
+                        mdc.put(readString(in), readString(in));
+                    }
+                    IThrowableProxy throwableProxy = null;
+                    if (in.readBoolean()) {
+                        throwableProxy = new DetachedEvent.ThrowableSummary(readString(in), readString(in));
+                    }
+                    return new DetachedEvent(level, loggerName, threadName, message, timeStamp, mdc, throwableProxy);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        }
+    }
+}
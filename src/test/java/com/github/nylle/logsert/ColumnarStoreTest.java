@@ -0,0 +1,157 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarStoreTest {
+
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger("columnar");
+
+    @Test
+    void readsBackWhatAssertionsNeed() {
+        var sut = new ColumnarStore();
+        var exception = new RuntimeException("oops");
+        var event = event(Level.WARN, "message {} {}", Map.of("key", "value"), exception, "one", 2);
+        sut.append(event);
+
+        var actual = sut.snapshot().get(0);
+
+        assertThat(actual.getLevel()).isEqualTo(Level.WARN);
+        assertThat(actual.getLoggerName()).isEqualTo("columnar");
+        assertThat(actual.getMessage()).isEqualTo("message {} {}");
+        assertThat(actual.getFormattedMessage()).isEqualTo("message one 2");
+        assertThat(actual.getMDCPropertyMap()).isEqualTo(Map.of("key", "value"));
+        assertThat(actual.getThrowableProxy().getMessage()).isEqualTo("oops");
+        assertThat(actual.getTimeStamp()).isEqualTo(event.getTimeStamp());
+        assertThat(actual.getThreadName()).isEqualTo(Thread.currentThread().getName());
+        assertThat(actual.hasCallerData()).isFalse();
+    }
+
+    @Test
+    void keepsSequenceNumberAndLoggerContext() {
+        var sut = new ColumnarStore();
+        var event = new LoggingEvent(LOGGER.getName(), LOGGER, Level.INFO, "message", null, null) {
+            @Override
+            public long getSequenceNumber() {
+                return 42;
+            }
+        };
+        sut.append(event);
+
+        var actual = sut.snapshot().get(0);
+
+        assertThat(actual.getSequenceNumber()).isEqualTo(42);
+        assertThat(actual.getLoggerContextVO()).isNotNull().isSameAs(event.getLoggerContextVO());
+    }
+
+    @Test
+    void sharesEqualMdcMaps() {
+        var sut = new ColumnarStore();
+        sut.append(event(Level.INFO, "first", Map.of("key", "value"), null));
+        sut.append(event(Level.INFO, "second", Map.of("key", "value"), null));
+
+        var snapshot = sut.snapshot();
+
+        assertThat(snapshot.get(0).getMDCPropertyMap()).isSameAs(snapshot.get(1).getMDCPropertyMap());
+    }
+
+    @Test
+    void keepsNullMdcValues() {
+        var sut = new ColumnarStore();
+        var mdc = new HashMap<String, String>();
+        mdc.put("key", null);
+        sut.append(event(Level.INFO, "message", mdc, null));
+
+        assertThat(sut.snapshot().get(0).getMDCPropertyMap()).containsEntry("key", null);
+    }
+
+    @Test
+    void formatsEachMessageOnce() {
+        var sut = new ColumnarStore();
+        var formatted = new AtomicInteger();
+        var argument = new Object() {
+            @Override
+            public String toString() {
+                return "argument " + formatted.incrementAndGet();
+            }
+        };
+        sut.append(event(Level.INFO, "message {}", Map.of(), null, argument));
+
+        assertThat(sut.snapshot().get(0).getFormattedMessage()).isEqualTo("message argument 1");
+        assertThat(sut.snapshot().get(0).getFormattedMessage()).isEqualTo("message argument 1");
+        assertThat(formatted).hasValue(1);
+    }
+
+    @Test
+    void scansLevelAndLoggerColumns() {
+        var sut = new ColumnarStore();
+        sut.append(event(Level.INFO, "info", Map.of(), null));
+        sut.append(event(Level.WARN, "warn", Map.of(), null));
+        sut.append(event(Level.WARN, "later", Map.of(), null));
+
+        assertThat(lookup(sut, new ExpectedLoggingEvent(Level.WARN, "columnar", null, null, null, null))).extracting("message").containsExactly("warn", "later");
+        assertThat(lookup(sut, new ExpectedLoggingEvent(null, "unknown", null, null, null, null))).isEmpty();
+        assertThat(lookup(sut, new ExpectedLoggingEvent(Level.DEBUG, null, null, null, null, null))).isEmpty();
+    }
+
+    @Test
+    void publishesAllEventsAppendedConcurrently() throws Exception {
+        var sut = new ColumnarStore();
+        var executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 100_000; i++) {
+            var message = "message " + (i % 10);
+            executor.submit(() -> sut.append(event(Level.INFO, message, Map.of(), null)));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(sut.size()).isEqualTo(100_000);
+        assertThat(sut.snapshot()).allSatisfy(x -> assertThat(x.getMessage()).startsWith("message "));
+    }
+
+    @Test
+    void recordsCompactlyWithLogRecorder() {
+        var sut = new LogRecorder(SomethingThatLogs.class).storingCompactly();
+        sut.beforeEach(null);
+
+        new SomethingThatLogs().logInfoWithArguments("message {}", "argument");
+
+        LogAssertions.assertThat(sut).withLevel(Level.INFO).withMessage("message argument").containsLogs(1);
+        sut.afterEach(null);
+    }
+
+    @Test
+    void recordsEventsWithNullMdcValuesWithLogRecorder() {
+        var sut = new LogRecorder(SomethingThatLogs.class).storingCompactly();
+        sut.beforeEach(null);
+
+        new SomethingThatLogs().logInfoWithMdc("message", "key", null);
+
+        LogAssertions.assertThat(sut).withMessage("message").containsLogs(1);
+        sut.afterEach(null);
+    }
+
+    private static List<ILoggingEvent> lookup(ColumnarStore store, ExpectedLoggingEvent expected) {
+        return ((IndexedEvents) store.snapshot()).lookup(expected);
+    }
+
+    private static LoggingEvent event(Level level, String message, Map<String, String> mdc, Throwable throwable, Object... arguments) {
+        var event = new LoggingEvent(LOGGER.getName(), LOGGER, level, message, throwable, arguments);
+        event.setMDCPropertyMap(mdc);
+        return event;
+    }
+}
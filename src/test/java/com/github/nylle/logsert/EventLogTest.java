@@ -0,0 +1,104 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class EventLogTest {
+
+    @Test
+    void appendsAcrossSegments() {
+        var sut = new EventLog();
+        var events = new LoggingEvent[5000];
+
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new LoggingEvent();
+            sut.append(events[i]);
+        }
+
+        assertThat(sut.size()).isEqualTo(5000);
+        assertThat(sut.snapshot()).containsExactly(events);
+    }
+
+    @Test
+    void snapshotIsStableWhileAppending() {
+        var sut = new EventLog();
+        sut.append(new LoggingEvent());
+
+        var snapshot = sut.snapshot();
+        sut.append(new LoggingEvent());
+
+        assertThat(snapshot).hasSize(1);
+        assertThat(sut.snapshot()).hasSize(2);
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> snapshot.get(1));
+    }
+
+    @Test
+    void publishesAllEventsAppendedConcurrently() throws Exception {
+        var sut = new EventLog();
+        var executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 100_000; i++) {
+            executor.submit(() -> sut.append(new LoggingEvent()));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(sut.size()).isEqualTo(100_000);
+        assertThat(sut.snapshot()).doesNotContainNull();
+    }
+
+    @Test
+    void looksUpSmallestPostingList() {
+        var sut = new EventLog();
+        var info = event(Level.INFO, "logger", Map.of("key", "value"), null);
+        var warn = event(Level.WARN, "logger", Map.of("key", "value"), null);
+        var error = event(Level.ERROR, "other", Map.of(), new RuntimeException());
+        sut.append(info);
+        sut.append(warn);
+        sut.append(error);
+
+        assertThat(lookup(sut, new ExpectedLoggingEvent(Level.WARN, null, null, null, null, Map.of("key", "value")))).containsExactly(warn);
+        assertThat(lookup(sut, new ExpectedLoggingEvent(null, "logger", null, null, null, null))).containsExactly(info, warn);
+        assertThat(lookup(sut, new ExpectedLoggingEvent(null, null, null, RuntimeException.class.getName(), null, null))).containsExactly(error);
+        assertThat(lookup(sut, new ExpectedLoggingEvent(Level.DEBUG, null, null, null, null, null))).isEmpty();
+        assertThat(lookup(sut, new ExpectedLoggingEvent(null, null, "message", null, null, null))).containsExactly(info, warn, error);
+    }
+
+    @Test
+    void looksUpWithinSnapshot() {
+        var sut = new EventLog();
+        var first = event(Level.INFO, "logger", Map.of(), null);
+        sut.append(first);
+
+        var snapshot = sut.snapshot();
+        sut.append(event(Level.INFO, "logger", Map.of(), null));
+
+        assertThat(((IndexedEvents) snapshot).lookup(new ExpectedLoggingEvent(Level.INFO, null, null, null, null, null))).containsExactly(first);
+    }
+
+    private static List<ILoggingEvent> lookup(EventLog log, ExpectedLoggingEvent expected) {
+        return ((IndexedEvents) log.snapshot()).lookup(expected);
+    }
+
+    private static LoggingEvent event(Level level, String loggerName, Map<String, String> mdc, Throwable throwable) {
+        var event = new LoggingEvent();
+        event.setLevel(level);
+        event.setLoggerName(loggerName);
+        event.setMDCPropertyMap(mdc);
+        if (throwable != null) {
+            event.setThrowableProxy(new ThrowableProxy(throwable));
+        }
+        return event;
+    }
+}
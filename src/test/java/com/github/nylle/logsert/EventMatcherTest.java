@@ -0,0 +1,87 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventMatcherTest {
+
+    @Test
+    void checksLevelBeforeFormattingMessage() {
+        var event = new CountingEvent(Level.INFO, "message", Map.of());
+        var expected = new ExpectedLoggingEvent();
+        expected.setMessage("message");
+        expected.setLevel(Level.WARN);
+
+        assertThat(expected.compile().test(event)).isFalse();
+        assertThat(event.formatted).isZero();
+    }
+
+    @Test
+    void formatsMessageOnce() {
+        var event = new CountingEvent(Level.INFO, "message", Map.of());
+        var expected = new ExpectedLoggingEvent();
+        expected.setMessage("message");
+        expected.setMessageContaining("ess");
+
+        assertThat(expected.compile().test(event)).isTrue();
+        assertThat(event.formatted).isEqualTo(1);
+    }
+
+    @Test
+    void matchesMdcEntries() {
+        var event = new CountingEvent(Level.INFO, "message", Map.of("key", "value", "foo", "bar"));
+
+        var contained = new ExpectedLoggingEvent();
+        contained.putMdc(Map.of("key", "value"));
+        var exactly = new ExpectedLoggingEvent();
+        exactly.setMdc(Map.of("key", "value"));
+
+        assertThat(contained.compile().test(event)).isTrue();
+        assertThat(exactly.compile().test(event)).isFalse();
+    }
+
+    @Test
+    void rejectsConflictingCriteria() {
+        var event = new CountingEvent(Level.INFO, "message", Map.of());
+        var expected = new ExpectedLoggingEvent();
+        expected.setLevel(Level.INFO);
+        expected.setLevel(Level.WARN);
+
+        assertThat(expected.compile().test(event)).isFalse();
+    }
+
+    @Test
+    void rejectsEventsWithoutThrowable() {
+        var event = new CountingEvent(Level.INFO, "message", Map.of());
+        var expected = new ExpectedLoggingEvent();
+        expected.setThrowableClass(RuntimeException.class.getName());
+
+        assertThat(expected.compile().test(event)).isFalse();
+
+        event.setThrowableProxy(new ThrowableProxy(new RuntimeException()));
+
+        assertThat(expected.compile().test(event)).isTrue();
+    }
+
+    private static class CountingEvent extends LoggingEvent {
+        private int formatted;
+
+        CountingEvent(Level level, String message, Map<String, String> mdc) {
+            setLevel(level);
+            setMessage(message);
+            setMDCPropertyMap(mdc);
+        }
+
+        @Override
+        public String getFormattedMessage() {
+            formatted++;
+            return super.getFormattedMessage();
+        }
+    }
+}
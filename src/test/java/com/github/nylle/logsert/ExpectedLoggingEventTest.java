@@ -0,0 +1,74 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpectedLoggingEventTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "message, message, 100, 0",
+            "message, massage, 100, 1",
+            "message, mess, 100, 3",
+            "kitten, sitting, 100, 3",
+            "'', abc, 100, 3",
+            "kitten, sitting, 2, 2",
+            "message, completely different, 5, 5"
+    })
+    void editDistanceIsBoundedByLimit(String expected, String actual, int limit, int distance) {
+        assertThat(ExpectedLoggingEvent.editDistance(expected, actual, limit)).isEqualTo(distance);
+    }
+
+    @Test
+    void logAssertionsAndLogExpectationOfferAllCriteria() {
+        var criteria = criteria(ExpectedLoggingEvent.class);
+
+        assertThat(criteria(LogAssertions.class)).containsExactlyInAnyOrderElementsOf(criteria);
+        assertThat(criteria(LogExpectation.class)).containsExactlyInAnyOrderElementsOf(criteria);
+    }
+
+    @Test
+    void ranksNearestMissesByMatchingCriteria() {
+        var sut = new ExpectedLoggingEvent();
+        sut.setLevel(Level.WARN);
+        sut.setMessage("connection lost");
+        sut.putMdc(Map.of("key", "value"));
+
+        var wrongLevel = event(Level.INFO, "connection lost", Map.of("key", "value"));
+        var typo = event(Level.WARN, "connection last", Map.of("key", "value"));
+        var unrelated = event(Level.INFO, "started", Map.of());
+        var missingMdc = event(Level.WARN, "connection lost", Map.of());
+
+        List<ILoggingEvent> events = List.of(unrelated, wrongLevel, missingMdc, typo);
+
+        assertThat(sut.nearestMisses(events, 2)).containsExactly(typo, wrongLevel);
+        assertThat(sut.nearestMisses(events, 10)).containsExactly(typo, wrongLevel, missingMdc, unrelated);
+    }
+
+    private static ILoggingEvent event(Level level, String message, Map<String, String> mdc) {
+        var event = new LoggingEvent();
+        event.setLevel(level);
+        event.setMessage(message);
+        event.setMDCPropertyMap(mdc);
+        return event;
+    }
+
+    private static List<String> criteria(Class<?> type) {
+        return Arrays.stream(type.getDeclaredMethods())
+                .filter(x -> Modifier.isPublic(x.getModifiers()) && x.getName().startsWith("with") && !x.getName().equals("within"))
+                .map(x -> x.getName() + Arrays.toString(x.getParameterTypes()))
+                .collect(Collectors.toList());
+    }
+}
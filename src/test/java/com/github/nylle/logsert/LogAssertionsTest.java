@@ -1,11 +1,18 @@
 package com.github.nylle.logsert;
 
 import ch.qos.logback.classic.Level;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.nylle.logsert.LogAssertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -75,6 +82,50 @@ class LogAssertionsTest {
         }
     }
 
+    @Nested
+    class ContainsAll {
+
+        @Test
+        void succeedsWhenAllExpectationsAreMet() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message 1");
+            somethingThatLogs.logInfo("message 2");
+            somethingThatLogs.logInfo("message 2");
+
+            assertThat(sut).containsAll(
+                    LogExpectation.logs().withMessage("message 1"),
+                    LogExpectation.logs().withMessage("message 2").times(2),
+                    LogExpectation.logs().withLevel(Level.WARN).times(0));
+        }
+
+        @Test
+        void appliesCommonCriteriaToAllExpectations() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfoWithMdc("message", "key", "value");
+            somethingThatLogs.logInfo("message");
+
+            assertThat(sut).withMdcEntry("key", "value").containsAll(
+                    LogExpectation.logs().withMessage("message").times(1));
+        }
+
+        @Test
+        void reportsAllFailedExpectations() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message 1");
+            somethingThatLogs.logInfo("message 2");
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(sut).containsAll(
+                            LogExpectation.logs().withMessage("message 1"),
+                            LogExpectation.logs().withMessage("message 2").times(2),
+                            LogExpectation.logs().withLevel(Level.WARN)))
+                    .withMessageContaining("Expecting log:\n  [[INFO, message 1],\n   [INFO, message 2]]\n")
+                    .withMessageContaining("to contain:\n  [[message 2]]\n2 times but found 1 times\n")
+                    .withMessageContaining("and to contain:\n  [[WARN]]\nat least once but was not found")
+                    .withMessageNotContaining("[[message 1]]");
+        }
+    }
+
     @Nested
     class WithMessage {
 
@@ -163,6 +214,30 @@ class LogAssertionsTest {
         }
     }
 
+    @Nested
+    class WithLogger {
+
+        @Test
+        void succeedsWhenLoggerMatches() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message");
+
+            assertThat(sut).withLogger(SomethingThatLogs.class.getName()).containsLogs();
+        }
+
+        @Test
+        void failsWhenLoggerNotFound() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message");
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(sut).withLogger("other").containsLogs())
+                    .withMessageContaining("Expecting log:\n  [[" + SomethingThatLogs.class.getName() + "]]\n")
+                    .withMessageContaining("to contain:\n  [[other]]\n")
+                    .withMessageContaining("at least once but was not found");
+        }
+    }
+
     @Nested
     class WithMdcEntry {
 
@@ -236,6 +311,209 @@ class LogAssertionsTest {
         }
     }
 
+    @Nested
+    class Within {
+
+        @Test
+        void succeedsWhenLogsArriveBeforeTimeout() {
+            var somethingThatLogs = new SomethingThatLogs();
+            CompletableFuture.runAsync(() -> somethingThatLogs.logInfo("message"), CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+
+            assertThat(sut).within(Duration.ofSeconds(10)).withMessage("message").containsLogs();
+            assertThat(sut).within(Duration.ofSeconds(10)).withMessage("message").containsLogs(1);
+        }
+
+        @Test
+        void keepsTimeoutForChainedAssertions() {
+            var somethingThatLogs = new SomethingThatLogs();
+            var executor = CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS);
+            CompletableFuture.runAsync(() -> somethingThatLogs.logInfo("message 1"), executor)
+                    .thenRunAsync(() -> somethingThatLogs.logInfo("message 2"), executor);
+
+            assertThat(sut).within(Duration.ofSeconds(10))
+                    .withMessage("message 1").containsLogs(1)
+                    .withMessage("message 2").containsLogs(1);
+        }
+
+        @Test
+        void waitsForAllExpectations() {
+            var somethingThatLogs = new SomethingThatLogs();
+            var executor = CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS);
+            CompletableFuture.runAsync(() -> somethingThatLogs.logInfo("message 1"), executor)
+                    .thenRunAsync(() -> somethingThatLogs.logInfo("message 2"), executor);
+
+            assertThat(sut).within(Duration.ofSeconds(10)).containsAll(
+                    LogExpectation.logs().withMessage("message 1"),
+                    LogExpectation.logs().withMessage("message 2").times(1));
+        }
+
+        @Test
+        void waitsForAllExpectationsMatchingTheCriteria() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("other message");
+            somethingThatLogs.logInfo("other message");
+            CompletableFuture.runAsync(() -> somethingThatLogs.logInfo("message"), CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+
+            assertThat(sut).withMessage("message").within(Duration.ofSeconds(10)).containsAll(LogExpectation.logs().times(1));
+        }
+
+        @Test
+        void failsAllExpectationsWithoutWaitingWhenOneIsExceeded() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message");
+            somethingThatLogs.logInfo("message");
+
+            var started = System.nanoTime();
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(sut).within(Duration.ofSeconds(10)).containsAll(
+                            LogExpectation.logs().withMessage("message").times(1),
+                            LogExpectation.logs().withMessage("missing")))
+                    .withMessageContaining("1 times but found 2 times");
+            Assertions.assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        }
+
+        @Test
+        void failsWhenLogsDoNotArriveBeforeTimeout() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("other message");
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(sut).within(Duration.ofMillis(100)).withMessage("message").containsLogs())
+                    .withMessageContaining("Expecting log:\n  [[other message]]\n")
+                    .withMessageContaining("at least once but was not found");
+        }
+
+        @Test
+        void failsWithoutWaitingWhenMoreLogsThanExpectedArrived() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message");
+            somethingThatLogs.logInfo("message");
+
+            var started = System.nanoTime();
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(sut).within(Duration.ofSeconds(10)).withMessage("message").containsLogs(1))
+                    .withMessageContaining("1 times but found 2 times");
+            Assertions.assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        }
+    }
+
+    @Nested
+    class NearestMisses {
+
+        @Test
+        void listsClosestEventsWhenNothingMatches() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("something else");
+            somethingThatLogs.logInfo("messages");
+            somethingThatLogs.logInfo("unrelated");
+            somethingThatLogs.logInfo("massage");
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(sut).withMessage("message").containsLogs())
+                    .withMessageContaining("closest events were:\n  [messages],\n  [massage],\n  [unrelated]");
+        }
+
+        @Test
+        void omitsClosestEventsWhenSomeMatched() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message");
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(sut).withMessage("message").containsLogs(2))
+                    .withMessageNotContaining("closest events were");
+        }
+    }
+
+    @Nested
+    class Listing {
+
+        @Test
+        void listsAtMostTheGivenNumberOfEvents() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message 1");
+            somethingThatLogs.logInfo("message 2");
+            somethingThatLogs.logInfo("message 3");
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(sut).listingAtMost(1).withMessage("message").containsLogs())
+                    .withMessageContaining("Expecting log:\n  [[message 1]]\n  and 2 more events not listed (by level: {INFO=2}, by logger: {" + SomethingThatLogs.class.getName() + "=2})\n");
+        }
+
+        @Test
+        void keepsListingLimitForChainedAssertions() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message 1");
+            somethingThatLogs.logInfo("message 2");
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(sut).listingAtMost(0).withMessage("message 1").containsLogs().withMessage("message").containsLogs())
+                    .withMessageContaining("Expecting log:\n  []\n  and 2 more events not listed");
+        }
+
+        @Test
+        void spillsFullListingToFile(@TempDir Path directory) throws Exception {
+            var file = directory.resolve("listing.txt");
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message 1");
+            somethingThatLogs.logInfo("message 2");
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(sut).listingAtMost(1).spillingListingTo(file).withMessage("message").containsLogs())
+                    .withMessageContaining("full listing written to " + file.toAbsolutePath());
+
+            Assertions.assertThat(Files.readAllLines(file)).containsExactly("[message 1]", "[message 2]");
+        }
+    }
+
+    @Nested
+    class WithEvictions {
+
+        @RegisterExtension
+        LogRecorder bounded = new LogRecorder(SomethingThatLogs.class).withCapacity(1);
+
+        @Test
+        void reportsEvictedEventsThatCouldHaveMatched() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message");
+            somethingThatLogs.logInfo("other message");
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(bounded).withMessage("message").containsLogs())
+                    .withMessageContaining("Expecting log:\n  [[other message]]\n")
+                    .withMessageContaining("(1 evicted events could have matched; evicted by level: {INFO=1}");
+        }
+
+        @Test
+        void omitsEvictionsOfOtherLevels() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message");
+            somethingThatLogs.logInfo("other message");
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> assertThat(bounded).withLevel(Level.WARN).containsLogs())
+                    .withMessageNotContaining("evicted");
+        }
+    }
+
+    @Nested
+    class ParallelAbove {
+
+        @Test
+        void countsInParallelAboveThreshold() {
+            var somethingThatLogs = new SomethingThatLogs();
+            for (int i = 0; i < 10_000; i++) {
+                somethingThatLogs.logInfoWithArguments("message {}", i % 10);
+            }
+
+            assertThat(sut).parallelAbove(100)
+                    .withMessage("message 3")
+                    .containsLogs(1000)
+                    .containsAll(
+                            LogExpectation.logs().withMessage("message 4").times(1000),
+                            LogExpectation.logs().withMessageContaining("message").times(10_000));
+        }
+    }
+
     @Test
     void demonstrateAllAssertions() {
         var expectedException = new RuntimeException("expected for test");
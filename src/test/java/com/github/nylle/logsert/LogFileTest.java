@@ -0,0 +1,102 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class LogFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsJsonLines() throws IOException {
+        var file = write("service.json",
+                "{\"timestamp\":1700000000000,\"level\":\"INFO\",\"loggerName\":\"com.example.Service\",\"threadName\":\"main\",\"message\":\"started\",\"mdc\":{\"requestId\":\"42\"}}",
+                "",
+                "{\"@timestamp\":\"2023-11-14T22:13:20.000+00:00\",\"level\":\"ERROR\",\"logger_name\":\"com.example.Service\",\"message\":\"failed \\\"badly\\\"\",\"requestId\":\"43\",\"stack_trace\":\"java.lang.IllegalStateException: oops\\n\\tat com.example.Service.run(Service.java:1)\"}");
+
+        var events = LogFile.jsonLines(file).getLogEvents();
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getTimeStamp()).isEqualTo(1700000000000L);
+        assertThat(events.get(0).getThreadName()).isEqualTo("main");
+        assertThat(events.get(1).getTimeStamp()).isEqualTo(1700000000000L);
+        assertThat(events.get(1).getFormattedMessage()).isEqualTo("failed \"badly\"");
+        LogAssertions.assertThat(LogFile.jsonLines(file))
+                .withLevel(Level.INFO).withMdcEntry("requestId", "42").withMessage("started").containsLogs(1)
+                .withLevel(Level.ERROR).withMdcEntry("requestId", "43").withException(IllegalStateException.class, "oops").containsLogs(1);
+    }
+
+    @Test
+    void readsPatternOutputWithStackTraces() throws IOException {
+        var file = write("service.log",
+                "2023-11-14 22:13:20.000 [main] INFO  com.example.Service - started",
+                "2023-11-14 22:13:21.000 [worker-1] ERROR com.example.Service - failed",
+                "java.lang.IllegalStateException: oops",
+                "\tat com.example.Service.run(Service.java:1)",
+                "2023-11-14 22:13:22.000 [main] WARN  com.example.Other - multi",
+                "line message");
+
+        var events = LogFile.pattern(file, "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n").getLogEvents();
+
+        assertThat(events).extracting("level").containsExactly(Level.INFO, Level.ERROR, Level.WARN);
+        assertThat(events).extracting("threadName").containsExactly("main", "worker-1", "main");
+        assertThat(events.get(1).getThrowableProxy().getClassName()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(events.get(2).getFormattedMessage()).isEqualTo("multi\nline message");
+        assertThat(events.get(0).getTimeStamp()).isPositive();
+    }
+
+    @Test
+    void readsMdcFromPattern() throws IOException {
+        var file = write("mdc.log", "INFO requestId=42 all=[a=1, b=2] - message");
+
+        var events = LogFile.pattern(file, "%level requestId=%X{requestId} all=[%X] - %msg").getLogEvents();
+
+        assertThat(events.get(0).getMDCPropertyMap()).isEqualTo(Map.of("requestId", "42", "a", "1", "b", "2"));
+    }
+
+    @Test
+    void evaluatesChunksInParallel() throws IOException {
+        var file = write("large.log", IntStream.range(0, 20_000)
+                .mapToObj(i -> i % 100 == 0
+                        ? "ERROR com.example.Service - failure " + i + "\njava.lang.IllegalStateException: oops " + i + "\n\tat com.example.Service.run(Service.java:1)"
+                        : "INFO com.example.Service - message " + i)
+                .toArray(String[]::new));
+        var sut = new LogFile(file, new PatternFormat("%level %logger - %msg"), 1024);
+
+        assertThat(sut.getLogEvents().spliterator().trySplit()).isNotNull();
+        assertThat(sut.getLogEvents()).hasSize(20_000);
+        assertThat(sut.getLogEvents().stream().filter(x -> x.getThrowableProxy() != null).count()).isEqualTo(200);
+        assertThat(sut.getLogEvents().stream().map(x -> x.getFormattedMessage()).collect(Collectors.toList()))
+                .startsWith("failure 0", "message 1")
+                .endsWith("message 19999");
+        LogAssertions.assertThat(sut).withLevel(Level.ERROR).containsLogs(200);
+        LogAssertions.assertThat(sut).containsAll(
+                LogExpectation.logs().withLevel(Level.ERROR).times(200),
+                LogExpectation.logs().withMessage("message 12345").times(1));
+    }
+
+    @Test
+    void failsWithListingOfFile() throws IOException {
+        var file = write("service.json", "{\"level\":\"INFO\",\"loggerName\":\"com.example.Service\",\"message\":\"started\"}");
+
+        assertThatExceptionOfType(AssertionError.class)
+                .isThrownBy(() -> LogAssertions.assertThat(LogFile.jsonLines(file)).withMessage("stopped").containsLogs())
+                .withMessageContaining("[[started]]");
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(directory.resolve(name), String.join("\n", lines).concat("\n").getBytes());
+    }
+}
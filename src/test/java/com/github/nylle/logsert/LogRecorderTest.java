@@ -1,15 +1,64 @@
 package com.github.nylle.logsert;
 
 import ch.qos.logback.classic.Level;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 
 class LogRecorderTest {
 
+    @RegisterExtension
+    static LogRecorder forAll = new LogRecorder(SomethingThatLogs.class);
+
+    private static final CyclicBarrier LOGGED = new CyclicBarrier(2);
+
+    @RepeatedTest(2)
+    void staticRecorderOnlyShowsEventsOfCurrentTest() {
+        new SomethingThatLogs().logInfo("message");
+
+        assertThat(forAll.getLogEvents()).hasSize(1);
+    }
+
+    @Nested
+    @Execution(ExecutionMode.CONCURRENT)
+    class SharedByConcurrentTests {
+
+        @Test
+        void first() throws Exception {
+            logAndAssert("first", 1);
+        }
+
+        @Test
+        void second() throws Exception {
+            logAndAssert("second", 2);
+        }
+
+        private void logAndAssert(String message, int count) throws Exception {
+            var somethingThatLogs = new SomethingThatLogs();
+            for (int i = 0; i < count; i++) {
+                somethingThatLogs.logInfo(message);
+            }
+            LOGGED.await(10, TimeUnit.SECONDS);
+
+            assertThat(forAll.getLogEvents()).extracting("message").hasSize(count).containsOnly(message);
+        }
+    }
+
     @Nested
     class ByClass {
 
@@ -67,4 +116,303 @@ class LogRecorderTest {
             assertThat(sut.getLogEvents().get(0).getMDCPropertyMap()).containsEntry("key", "value");
         }
     }
+
+    @Nested
+    class Concurrently {
+
+        @RegisterExtension
+        LogRecorder sut = new LogRecorder(SomethingThatLogs.class);
+
+        @Test
+        void recordsEventsFromAllThreads() throws Exception {
+            var somethingThatLogs = new SomethingThatLogs();
+            var executor = Executors.newFixedThreadPool(8);
+
+            for (int i = 0; i < 8000; i++) {
+                executor.submit(() -> somethingThatLogs.logInfo("message"));
+            }
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+
+            assertThat(sut.getLogEvents()).hasSize(8000);
+        }
+    }
+
+    @Nested
+    class WithCapacity {
+
+        @RegisterExtension
+        LogRecorder sut = new LogRecorder(SomethingThatLogs.class).withCapacity(2);
+
+        @Test
+        void keepsMostRecentEvents() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message 1");
+            somethingThatLogs.logInfo("message 2");
+            somethingThatLogs.logInfo("message 3");
+
+            assertThat(sut.getLogEvents()).extracting("message").containsExactly("message 2", "message 3");
+        }
+
+        @Test
+        void countsEvictedEvents() {
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("message 1");
+            somethingThatLogs.logInfo("message 2");
+            somethingThatLogs.logInfo("message 3");
+
+            assertThat(sut.getEvictedCount()).isEqualTo(1);
+            assertThat(sut.getEvictedCountByLevel()).isEqualTo(Map.of(Level.INFO, 1L));
+            assertThat(sut.getEvictedCountByLogger()).isEqualTo(Map.of(SomethingThatLogs.class.getName(), 1L));
+        }
+    }
+
+    @Nested
+    class Forbidding {
+
+        @Test
+        void recordsViolationsWithLoggingThread() throws Exception {
+            var sut = new LogRecorder(SomethingThatLogs.class).forbidding(LogExpectation.logs().withMessage("forbidden"));
+            sut.beforeEach(null);
+
+            var somethingThatLogs = new SomethingThatLogs();
+            somethingThatLogs.logInfo("allowed");
+            var thread = new Thread(() -> somethingThatLogs.logInfo("forbidden"), "offender");
+            thread.start();
+            thread.join();
+
+            assertThat(sut.getViolations()).singleElement().satisfies(x -> assertThat(x)
+                    .hasMessageContaining("Expecting no log matching:\n  [[forbidden]]\n")
+                    .hasMessageContaining("but thread 'offender' logged:\n  [[forbidden]]"));
+            assertThat(sut.getLogEvents()).hasSize(2);
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> sut.afterEach(null))
+                    .withMessageContaining("1 forbidden log events were recorded");
+        }
+
+        @Test
+        void keepsViolationsOfConcurrentTestsApart() throws Exception {
+            var sut = new LogRecorder(SomethingThatLogs.class).forbidding(LogExpectation.logs().withMessage("forbidden"));
+            var logged = new CyclicBarrier(2);
+            var failures = new ConcurrentHashMap<String, AssertionError>();
+            sut.beforeAll(null);
+
+            var offending = new Thread(() -> runTest(sut, logged, "forbidden", failures), "offending");
+            var clean = new Thread(() -> runTest(sut, logged, "allowed", failures), "clean");
+            offending.start();
+            clean.start();
+            offending.join();
+            clean.join();
+            sut.afterAll(null);
+
+            assertThat(failures).containsOnlyKeys("offending");
+            assertThat(failures.get("offending")).hasMessageContaining("1 forbidden log events were recorded");
+        }
+
+        private void runTest(LogRecorder sut, CyclicBarrier logged, String message, Map<String, AssertionError> failures) {
+            sut.beforeEach(null);
+            new SomethingThatLogs().logInfo(message);
+            try {
+                logged.await(10, TimeUnit.SECONDS);
+                sut.afterEach(null);
+            } catch (AssertionError ex) {
+                failures.put(Thread.currentThread().getName(), ex);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        @Test
+        void abortsOnViolation() {
+            var sut = new LogRecorder(SomethingThatLogs.class).forbidding(LogExpectation.logs().withLevel(Level.INFO)).abortingOnViolation();
+            sut.beforeEach(null);
+
+            var somethingThatLogs = new SomethingThatLogs();
+
+            try {
+                assertThatExceptionOfType(AssertionError.class)
+                        .isThrownBy(() -> somethingThatLogs.logInfo("message"))
+                        .withMessageContaining("but thread '" + Thread.currentThread().getName() + "' logged:\n  [[INFO]]");
+            } finally {
+                assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> sut.afterEach(null));
+            }
+        }
+
+        @Test
+        void discardsEvents() {
+            var sut = new LogRecorder(SomethingThatLogs.class).forbidding(LogExpectation.logs().withLevel(Level.WARN)).discardingEvents();
+            sut.beforeEach(null);
+
+            new SomethingThatLogs().logInfo("message");
+
+            assertThat(sut.getLogEvents()).isEmpty();
+            assertThat(sut.getViolations()).isEmpty();
+            sut.afterEach(null);
+        }
+    }
+
+    @Nested
+    class MultipleLoggers {
+
+        @RegisterExtension
+        LogRecorder sut = new LogRecorder(SomethingThatLogs.class.getName(), "other", "com.github.nylle");
+
+        @Test
+        void recordsAllLoggersWithOneAppender() {
+            new SomethingThatLogs().logInfo("message");
+            LoggerFactory.getLogger("other.child").info("other message");
+            LoggerFactory.getLogger("unrecorded").info("unrecorded message");
+
+            assertThat(sut.getLogEvents()).extracting("message").containsExactly("message", "other message");
+            LogAssertions.assertThat(sut).withLogger("other.child").containsLogs(1);
+        }
+
+        @Test
+        void recordsNonAdditiveDescendants() {
+            var child = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("multiple.loggers.child");
+            child.setAdditive(false);
+            var sut = new LogRecorder("multiple.loggers", "multiple.loggers.child");
+
+            sut.beforeEach(null);
+            LoggerFactory.getLogger("multiple.loggers").info("message");
+            child.info("child message");
+            LoggerFactory.getLogger("multiple.loggers.child.grandchild").info("grandchild message");
+
+            assertThat(sut.getLogEvents()).extracting("message").containsExactly("message", "child message", "grandchild message");
+            sut.afterEach(null);
+            child.setAdditive(true);
+        }
+    }
+
+    @Nested
+    class EnablingLevel {
+
+        private final ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("scoped.level");
+
+        @Test
+        void lowersLevelDuringTestAndRestoresIt() {
+            logger.setLevel(Level.INFO);
+            var sut = new LogRecorder("scoped.level").enablingLevel(Level.DEBUG);
+            var other = new LogRecorder("scoped.level").enablingLevel(Level.TRACE);
+
+            sut.beforeEach(null);
+            other.beforeEach(null);
+            logger.trace("trace");
+            other.afterEach(null);
+            logger.trace("trace");
+            logger.debug("debug");
+
+            assertThat(sut.getLogEvents()).extracting("message").containsExactly("trace", "debug");
+            sut.afterEach(null);
+            assertThat(logger.getLevel()).isEqualTo(Level.INFO);
+
+            logger.setLevel(null);
+        }
+
+        @Test
+        void restoresInheritedLevel() {
+            var sut = new LogRecorder("scoped.level").enablingLevel(Level.TRACE);
+
+            sut.beforeEach(null);
+            logger.trace("trace");
+
+            assertThat(sut.getLogEvents()).hasSize(1);
+            sut.afterEach(null);
+            assertThat(logger.getLevel()).isNull();
+        }
+
+        @Test
+        void lowersLevelOfEveryRecordedLogger() {
+            var child = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("scoped.level.child");
+            child.setLevel(Level.WARN);
+            var sut = new LogRecorder("scoped.level", "scoped.level.child").enablingLevel(Level.DEBUG);
+
+            sut.beforeEach(null);
+            logger.debug("debug");
+            child.debug("child debug");
+
+            assertThat(sut.getLogEvents()).extracting("message").containsExactly("debug", "child debug");
+            sut.afterEach(null);
+            assertThat(child.getLevel()).isEqualTo(Level.WARN);
+
+            child.setLevel(null);
+        }
+
+        @Test
+        void skipsEventsBelowCaptureThreshold() {
+            var sut = new LogRecorder(SomethingThatLogs.class).capturingFrom(Level.WARN);
+            sut.beforeEach(null);
+
+            new SomethingThatLogs().logInfo("message");
+            LoggerFactory.getLogger(SomethingThatLogs.class).warn("warning");
+
+            assertThat(sut.getLogEvents()).extracting("message").containsExactly("warning");
+            sut.afterEach(null);
+        }
+    }
+
+    @Nested
+    class SuppressingOutput {
+
+        @Test
+        void keepsEventsFromParentAppendersAndRestoresAdditivity() {
+            var logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("quiet.child");
+            var parent = new LogRecorder("quiet");
+            var sut = new LogRecorder("quiet.child").suppressingOutput();
+
+            parent.beforeEach(null);
+            sut.beforeEach(null);
+            logger.info("message");
+
+            assertThat(sut.getLogEvents()).hasSize(1);
+            assertThat(parent.getLogEvents()).isEmpty();
+            assertThat(logger.isAdditive()).isFalse();
+            sut.afterEach(null);
+            parent.afterEach(null);
+            assertThat(logger.isAdditive()).isTrue();
+        }
+
+        @Test
+        void suppressesOutputOfEveryRecordedLogger() {
+            var grandchild = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("quiet.child.grandchild");
+            var output = new LogRecorder("quiet.child");
+            var sut = new LogRecorder("quiet.child", "quiet.child.grandchild").suppressingOutput();
+
+            output.beforeEach(null);
+            sut.beforeEach(null);
+            LoggerFactory.getLogger("quiet.child").info("message");
+            grandchild.info("grandchild message");
+
+            assertThat(sut.getLogEvents()).extracting("message").containsExactly("message", "grandchild message");
+            assertThat(output.getLogEvents()).extracting("message").containsExactly("message");
+            sut.afterEach(null);
+            output.afterEach(null);
+            assertThat(grandchild.isAdditive()).isTrue();
+        }
+    }
+
+    @Nested
+    class PublishingMetrics {
+
+        @Test
+        void publishesRecorderAndAssertionMetrics() {
+            var registry = new SimpleMeterRegistry();
+            var sut = new LogRecorder(SomethingThatLogs.class).publishingMetricsTo(registry);
+            sut.beforeEach(null);
+
+            new SomethingThatLogs().logInfo("message");
+            new SomethingThatLogs().logInfo("other");
+            LogAssertions.assertThat(sut).withMessage("message").containsLogs(1);
+            assertThatExceptionOfType(AssertionError.class).isThrownBy(() -> LogAssertions.assertThat(sut).withMessage("missing").containsLogs());
+
+            assertThat(registry.get("logsert.recorder.appended").counter().count()).isEqualTo(2);
+            assertThat(registry.get("logsert.recorder.append").timer().count()).isEqualTo(2);
+            assertThat(registry.get("logsert.recorder.retained").gauge().value()).isEqualTo(2);
+            assertThat(registry.get("logsert.recorder.size").gauge().value()).isPositive();
+            assertThat(registry.get("logsert.assertions.scanned").summary().totalAmount()).isEqualTo(4);
+            assertThat(registry.get("logsert.assertions.predicate").timer().count()).isEqualTo(2);
+            assertThat(registry.get("logsert.assertions.render").timer().count()).isEqualTo(1);
+            sut.afterEach(null);
+        }
+    }
 }
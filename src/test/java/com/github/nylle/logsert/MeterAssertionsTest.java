@@ -11,7 +11,10 @@ import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
@@ -371,4 +374,195 @@ class MeterAssertionsTest {
                     .withMessageContaining("  [name=timer, measurements=[COUNT=2.0, TOTAL_TIME=240.0, MAX=180.0], type=CumulativeTimer]");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class ParallelAbove {
+
+        @Test
+        void evaluatesInParallelAboveThreshold() {
+            for (int i = 0; i < 1000; i++) {
+                meterRegistry.counter("counter", Tags.of(Tag.of("index", String.valueOf(i)))).increment(i);
+            }
+
+            MeterAssertions.assertThat(meterRegistry)
+                    .parallelAbove(10)
+                    .withName("counter")
+                    .withTag("index", "500")
+                    .containsCount(500)
+                    .withName("other")
+                    .containsNoMeasurements();
+        }
+    }
+
+    @Nested
+    class MeasuresOnce {
+
+        @Test
+        void measuresEachMeterOncePerAssertion() {
+            var measured = new AtomicInteger();
+            meterRegistry.more().counter("function", Tags.empty(), measured, x -> x.incrementAndGet());
+
+            MeterAssertions.assertThat(meterRegistry).withName("function").containsCount(1);
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> MeterAssertions.assertThat(meterRegistry).withName("function").containsCount(1))
+                    .withMessageContaining("  [name=function, measurements=[COUNT=2.0], type=");
+
+            org.assertj.core.api.Assertions.assertThat(measured).hasValue(2);
+        }
+    }
+
+    @Nested
+    class Within {
+
+        @Test
+        void waitsForCountersIncrementedOnOtherThreads() {
+            var counter = meterRegistry.counter("async");
+            CompletableFuture.runAsync(() -> counter.increment(2), CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+
+            MeterAssertions.assertThat(meterRegistry).within(Duration.ofSeconds(10)).withName("async").containsCount(2);
+        }
+
+        @Test
+        void waitsForMetersRegisteredOnOtherThreads() {
+            CompletableFuture.runAsync(() -> meterRegistry.timer("async").record(3, TimeUnit.SECONDS), CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+
+            MeterAssertions.assertThat(meterRegistry).within(Duration.ofSeconds(10)).withName("async").containsTimer(1, 3, 3);
+        }
+
+        @Test
+        void keepsTimeoutForChainedAssertions() {
+            var executor = CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS);
+            CompletableFuture.runAsync(() -> meterRegistry.counter("first").increment(), executor)
+                    .thenRunAsync(() -> meterRegistry.counter("second").increment(), executor);
+
+            MeterAssertions.assertThat(meterRegistry).within(Duration.ofSeconds(10))
+                    .withName("first").containsCount(1)
+                    .withName("second").containsCount(1);
+        }
+
+        @Test
+        void failsWithLatestValuesWhenTimeoutElapses() {
+            meterRegistry.counter("async").increment();
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> MeterAssertions.assertThat(meterRegistry).within(Duration.ofMillis(100)).withName("async").containsCount(2))
+                    .withMessageContaining("  [name=async, measurements=[COUNT=1.0], type=");
+        }
+
+        @Test
+        void returnsWithoutWaitingWhenAlreadySatisfied() {
+            meterRegistry.counter("async").increment();
+
+            var started = System.nanoTime();
+            MeterAssertions.assertThat(meterRegistry).within(Duration.ofSeconds(10)).withName("async").containsCount(1);
+            org.assertj.core.api.Assertions.assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        }
+    }
+
+    @Nested
+    class Since {
+
+        @Test
+        void assertsCounterIncrementsSinceCheckpoint() {
+            var counter = meterRegistry.counter("shared");
+            counter.increment(5);
+            var checkpoint = MeterAssertions.checkpoint(meterRegistry);
+
+            counter.increment(2);
+
+            MeterAssertions.assertThat(meterRegistry).since(checkpoint).withName("shared").containsCount(2);
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> MeterAssertions.assertThat(meterRegistry).since(checkpoint).withName("shared").containsCount(7))
+                    .withMessageContaining("  [name=shared, measurements=[COUNT=2.0], type=");
+        }
+
+        @Test
+        void assertsTimerCountAndTotalTimeDeltasSinceCheckpoint() {
+            var timer = meterRegistry.timer("shared");
+            timer.record(10, TimeUnit.SECONDS);
+            var checkpoint = MeterAssertions.checkpoint(meterRegistry);
+
+            timer.record(3, TimeUnit.SECONDS);
+
+            MeterAssertions.assertThat(meterRegistry).since(checkpoint).withName("shared").containsTimer(1, 3, 10);
+        }
+
+        @Test
+        void countsMetersAddedSinceCheckpointFromZero() {
+            var checkpoint = MeterAssertions.checkpoint(meterRegistry);
+
+            meterRegistry.counter("added").increment(3);
+
+            MeterAssertions.assertThat(meterRegistry).since(checkpoint).withName("added").containsCount(3);
+        }
+
+        @Test
+        void assertsMetersAddedSinceCheckpoint() {
+            meterRegistry.counter("existing", "key", "value1");
+            var checkpoint = MeterAssertions.checkpoint(meterRegistry);
+
+            meterRegistry.counter("existing", "key", "value2");
+
+            MeterAssertions.assertThat(meterRegistry).since(checkpoint).withName("existing").withTag("key", "value2").containsNewMeter();
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> MeterAssertions.assertThat(meterRegistry).since(checkpoint).withName("existing").withTag("key", "value1").containsNewMeter())
+                    .withMessageContaining("to contain new meter:\n  [name=existing, tags=[key=value1]]\nbut was not found");
+        }
+
+        @Test
+        void requiresCheckpointForNewMeters() {
+            assertThatExceptionOfType(IllegalStateException.class)
+                    .isThrownBy(() -> MeterAssertions.assertThat(meterRegistry).containsNewMeter());
+        }
+
+        @Test
+        void keepsCheckpointForChainedAssertions() {
+            var first = meterRegistry.counter("first");
+            var second = meterRegistry.counter("second");
+            first.increment();
+            second.increment();
+            var checkpoint = MeterAssertions.checkpoint(meterRegistry);
+
+            first.increment();
+
+            MeterAssertions.assertThat(meterRegistry).since(checkpoint)
+                    .withName("first").containsCount(1)
+                    .withName("second").containsCount(0);
+        }
+    }
+
+    @Nested
+    class IndexedLookup {
+
+        @Test
+        void findsMetersRegisteredAfterFirstLookup() {
+            meterRegistry.counter("indexed", "a", "1").increment();
+            MeterAssertions.assertThat(meterRegistry).withName("indexed").containsCount(1);
+
+            meterRegistry.counter("indexed", "a", "2").increment(2);
+
+            MeterAssertions.assertThat(meterRegistry).withName("indexed").withTag("a", "2").containsCount(2);
+        }
+
+        @Test
+        void doesNotFindRemovedMeters() {
+            var counter = meterRegistry.counter("removed");
+            MeterAssertions.assertThat(meterRegistry).withName("removed").containsCount(0);
+
+            meterRegistry.remove(counter);
+
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> MeterAssertions.assertThat(meterRegistry).withName("removed").containsCount(0));
+        }
+
+        @Test
+        void matchesAllTagsInAnyOrder() {
+            meterRegistry.counter("tagged", "c", "3", "a", "1", "b", "2").increment();
+            meterRegistry.counter("tagged", "a", "1", "c", "3").increment(2);
+
+            MeterAssertions.assertThat(meterRegistry).withName("tagged").withTag("c", "3").withTag("b", "2").withTag("a", "1").containsCount(1);
+            assertThatExceptionOfType(AssertionError.class)
+                    .isThrownBy(() -> MeterAssertions.assertThat(meterRegistry).withName("tagged").withTag("b", "1").containsCount(1));
+        }
+    }
+}
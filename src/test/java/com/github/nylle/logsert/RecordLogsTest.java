@@ -0,0 +1,90 @@
+package com.github.nylle.logsert;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RecordLogs("com.github.nylle.logsert.SomethingThatLogs")
+class RecordLogsTest {
+
+    private static final CyclicBarrier LOGGED = new CyclicBarrier(2);
+
+    private final LogRecorder injected;
+
+    RecordLogsTest(LogRecorder logRecorder) {
+        this.injected = logRecorder;
+    }
+
+    @RepeatedTest(3)
+    void recordsOnlyEventsOfCurrentTest(LogRecorder logRecorder) {
+        new SomethingThatLogs().logInfo("message");
+
+        assertThat(logRecorder.getLogEvents()).hasSize(1);
+    }
+
+    @Test
+    void startsWithoutEventsOfOtherTests(LogRecorder logRecorder) {
+        LogAssertions.assertThat(logRecorder).containsLogs(0);
+    }
+
+    @Nested
+    class NestedTests {
+
+        @RepeatedTest(2)
+        void recordsOnlyEventsOfCurrentTest(LogRecorder logRecorder) {
+            new SomethingThatLogs().logInfo("message");
+
+            LogAssertions.assertThat(logRecorder).withMessage("message").containsLogs(1);
+        }
+
+        @Test
+        void injectsSameRecorderAsEnclosingClass(LogRecorder logRecorder) {
+            assertThat(logRecorder).isSameAs(injected);
+        }
+    }
+
+    @Nested
+    @Execution(ExecutionMode.CONCURRENT)
+    class ConcurrentTests {
+
+        @Test
+        void first(LogRecorder logRecorder) throws Exception {
+            logAndAssert(logRecorder, "first", 1);
+        }
+
+        @Test
+        void second(LogRecorder logRecorder) throws Exception {
+            logAndAssert(logRecorder, "second", 2);
+        }
+
+        private void logAndAssert(LogRecorder logRecorder, String message, int count) throws Exception {
+            var somethingThatLogs = new SomethingThatLogs();
+            for (int i = 0; i < count; i++) {
+                somethingThatLogs.logInfo(message);
+            }
+            LOGGED.await(10, TimeUnit.SECONDS);
+
+            LogAssertions.assertThat(logRecorder).withMessage(message).containsLogs(count);
+            assertThat(logRecorder.getLogEvents()).hasSize(count);
+        }
+    }
+
+    @Nested
+    @RecordLogs(value = "com.github.nylle.logsert.SomethingThatLogs", scope = RecordLogs.Scope.JVM)
+    class JvmScope {
+
+        @RepeatedTest(2)
+        void recordsOnlyEventsOfCurrentTest(LogRecorder logRecorder) {
+            new SomethingThatLogs().logInfo("message");
+
+            assertThat(logRecorder.getLogEvents()).hasSize(1);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordingAppenderTest {
+
+    @Test
+    void recordsOnlyEventsOfOwningTestAndUnownedThreads() throws Exception {
+        var first = started();
+        var second = started();
+        var recorded = new ConcurrentHashMap<String, Integer>();
+
+        var firstTest = new Thread(() -> {
+            var test = new Object();
+            first.claim(test);
+            append(first, second);
+            recorded.put("first", first.getStore().snapshot().size());
+            first.release(test);
+        });
+        var secondTest = new Thread(() -> {
+            var test = new Object();
+            second.claim(test);
+            append(first, second);
+            recorded.put("second", second.getStore().snapshot().size());
+            second.release(test);
+        });
+        firstTest.start();
+        secondTest.start();
+        firstTest.join();
+        secondTest.join();
+        append(first, second);
+
+        assertThat(recorded).containsEntry("first", 1).containsEntry("second", 1);
+        assertThat(first.getStore().snapshot()).hasSize(1);
+        assertThat(second.getStore().snapshot()).hasSize(1);
+    }
+
+    @Test
+    void separatesConcurrentTestsSharingAnAppender() throws Exception {
+        var sut = started();
+        var unowned = Executors.newSingleThreadExecutor();
+        unowned.submit(() -> { }).get();
+        var claimed = new CyclicBarrier(2, () -> await(unowned.submit(() -> append(sut))));
+        var logged = new CyclicBarrier(2);
+        var recorded = new ConcurrentHashMap<Integer, Integer>();
+
+        var tests = IntStream.rangeClosed(1, 2).mapToObj(events -> new Thread(() -> {
+            var test = new Object();
+            sut.claim(test);
+            await(claimed);
+            IntStream.range(0, events).forEach(i -> append(sut));
+            await(logged);
+            recorded.put(events, sut.getStore().snapshot().size());
+            sut.release(test);
+        })).collect(Collectors.toList());
+        tests.forEach(x -> x.start());
+        for (var test : tests) {
+            test.join();
+        }
+        unowned.shutdown();
+        unowned.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(recorded).containsEntry(1, 2).containsEntry(2, 3);
+    }
+
+    @Test
+    void inheritsOwnershipInChildThreads() throws Exception {
+        var first = started();
+        var second = started();
+        var secondTest = new Object();
+        var firstTest = new Object();
+        second.claim(secondTest);
+        first.claim(firstTest);
+
+        var child = new Thread(() -> append(first, second));
+        child.start();
+        child.join();
+
+        assertThat(first.getStore().snapshot()).hasSize(1);
+        assertThat(second.getStore().snapshot()).isEmpty();
+        first.release(firstTest);
+        second.release(secondTest);
+    }
+
+    @Test
+    void propagatesOwnershipToTasks() throws Exception {
+        var first = started();
+        var second = started();
+        var executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> { }).get();
+
+        var firstTest = new Object();
+        first.claim(firstTest);
+        executor.submit(RecordingAppender.propagate(() -> append(first, second))).get();
+        assertThat(first.getStore().snapshot()).hasSize(1);
+        first.release(firstTest);
+
+        var secondTest = new Object();
+        second.claim(secondTest);
+        executor.submit(() -> append(first, second)).get();
+        assertThat(second.getStore().snapshot()).hasSize(1);
+        second.release(secondTest);
+
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(first.getStore().snapshot()).hasSize(1);
+    }
+
+    @Test
+    void dropsUnclaimedEventsWhenAskedTo() {
+        var sut = started();
+        sut.setDroppingUnclaimed(true);
+
+        append(sut);
+        assertThat(sut.retained()).isZero();
+
+        var test = new Object();
+        sut.claim(test);
+        append(sut);
+        assertThat(sut.getStore().snapshot()).hasSize(1);
+        sut.release(test);
+    }
+
+    private static void await(Future<?> task) {
+        try {
+            task.get(10, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static RecordingAppender started() {
+        var appender = new RecordingAppender();
+        appender.start();
+        return appender;
+    }
+
+    private static void append(RecordingAppender... appenders) {
+        var event = new LoggingEvent();
+        for (var appender : appenders) {
+            appender.doAppend(event);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RingBufferTest {
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new RingBuffer(0));
+    }
+
+    @Test
+    void keepsEventsInAppendOrder() {
+        var sut = new RingBuffer(3);
+        var events = new LoggingEvent[5];
+
+        for (int i = 0; i < events.length; i++) {
+            events[i] = event(Level.INFO, "logger");
+            sut.append(events[i]);
+        }
+
+        assertThat(sut.snapshot()).containsExactly(events[2], events[3], events[4]);
+        assertThat(sut.evictedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void countsRetainedEventsUpToCapacity() {
+        var sut = new RingBuffer(3);
+        sut.append(event(Level.INFO, "logger"));
+
+        assertThat(sut.retained()).isEqualTo(1);
+
+        for (int i = 0; i < 4; i++) {
+            sut.append(event(Level.INFO, "logger"));
+        }
+
+        assertThat(sut.retained()).isEqualTo(3);
+    }
+
+    @Test
+    void accountsForEveryEventAppendedConcurrently() throws Exception {
+        var sut = new RingBuffer(100);
+        var executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 10_000; i++) {
+            var level = i % 2 == 0 ? Level.INFO : Level.WARN;
+            executor.submit(() -> sut.append(event(level, "logger")));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(sut.snapshot()).hasSize(100);
+        assertThat(sut.evictedCount()).isEqualTo(9_900);
+        assertThat(sut.evictedCountByLevel().values().stream().mapToLong(x -> x).sum()).isEqualTo(9_900);
+        assertThat(sut.evictedCountByLogger()).containsEntry("logger", 9_900L);
+    }
+
+    private static LoggingEvent event(Level level, String loggerName) {
+        var event = new LoggingEvent();
+        event.setLevel(level);
+        event.setLoggerName(loggerName);
+        return event;
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.nylle.logsert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpillingStoreTest {
+
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger("spilling");
+
+    @Test
+    void streamsSpilledAndRecentEventsInOrder() {
+        var sut = new SpillingStore(10, 256);
+
+        for (int i = 0; i < 5000; i++) {
+            sut.append(event(Level.INFO, "message " + i, Map.of("index", String.valueOf(i)), null));
+        }
+
+        var snapshot = sut.snapshot();
+        var messages = new ArrayList<String>();
+        snapshot.forEach(x -> messages.add(x.getFormattedMessage()));
+
+        assertThat(sut.spilledCount()).isEqualTo(4990);
+        assertThat(messages).hasSize(5000).startsWith("message 0", "message 1").endsWith("message 4999");
+        assertThat(snapshot.get(2049).getFormattedMessage()).isEqualTo("message 2049");
+        assertThat(snapshot.get(2049).getMDCPropertyMap()).isEqualTo(Map.of("index", "2049"));
+        assertThat(snapshot.get(4995).getFormattedMessage()).isEqualTo("message 4995");
+        sut.close();
+    }
+
+    @Test
+    void keepsWhatAssertionsNeed() {
+        var sut = new SpillingStore(0);
+        var event = event(Level.ERROR, "message {}", Map.of(), new IllegalStateException("oops"), "argument");
+        sut.append(event);
+
+        var actual = sut.snapshot().get(0);
+
+        assertThat(actual.getLevel()).isEqualTo(Level.ERROR);
+        assertThat(actual.getLoggerName()).isEqualTo("spilling");
+        assertThat(actual.getThreadName()).isEqualTo(Thread.currentThread().getName());
+        assertThat(actual.getFormattedMessage()).isEqualTo("message argument");
+        assertThat(actual.getTimeStamp()).isEqualTo(event.getTimeStamp());
+        assertThat(actual.getThrowableProxy().getClassName()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(actual.getThrowableProxy().getMessage()).isEqualTo("oops");
+        sut.close();
+    }
+
+    @Test
+    void createsFileOnFirstSpill() {
+        var sut = new SpillingStore(1);
+        sut.append(event(Level.INFO, "recent", Map.of(), null));
+
+        assertThat(sut.getFile()).isNull();
+
+        sut.append(event(Level.INFO, "more recent", Map.of(), null));
+
+        assertThat(sut.getFile()).isNotNull();
+        sut.close();
+    }
+
+    @Test
+    void iteratesRangesOfSnapshot() {
+        var sut = new SpillingStore(10, 256);
+        for (int i = 0; i < 3000; i++) {
+            sut.append(event(Level.INFO, "message " + i, Map.of(), null));
+        }
+
+        var messages = new ArrayList<String>();
+        sut.snapshot().subList(2500, 2995).forEach(x -> messages.add(x.getFormattedMessage()));
+
+        assertThat(messages).hasSize(495).startsWith("message 2500").endsWith("message 2994");
+        sut.close();
+    }
+
+    @Test
+    void deletesFileOnClose() {
+        var sut = new SpillingStore(0);
+        sut.append(event(Level.INFO, "message", Map.of(), null));
+
+        sut.close();
+
+        assertThat(Files.exists(sut.getFile())).isFalse();
+    }
+
+    @Test
+    void recordsWithLogRecorder() {
+        var sut = new LogRecorder(SomethingThatLogs.class).spillingToDisk(2);
+        sut.beforeEach(null);
+
+        for (int i = 0; i < 100; i++) {
+            new SomethingThatLogs().logInfoWithArguments("message {}", i);
+        }
+
+        LogAssertions.assertThat(sut).withMessage("message 0").containsLogs(1);
+        LogAssertions.assertThat(sut).withLevel(Level.INFO).containsLogs(100);
+        sut.afterEach(null);
+    }
+
+    private static LoggingEvent event(Level level, String message, Map<String, String> mdc, Throwable throwable, Object... arguments) {
+        var event = new LoggingEvent(LOGGER.getName(), LOGGER, level, message, throwable, arguments);
+        event.setMDCPropertyMap(mdc);
+        return event;
+    }
+}